@@ -2,7 +2,7 @@ package lgbt.audrey.basicmods.modules;
 
 import lombok.NonNull;
 import lgbt.audrey.pipe.Pipe;
-import lgbt.audrey.pipe.event.Listener;
+import lgbt.audrey.pipe.event.HookPolicy;
 import lgbt.audrey.pipe.event.events.SoulSandSpeed;
 import lgbt.audrey.pipe.plugin.Plugin;
 import lgbt.audrey.pipe.plugin.module.BasicModule;
@@ -18,12 +18,9 @@ public class ModuleAntiSoulSand extends BasicModule {
 
     @Override
     public void init() {
-        Pipe.eventBus().register(getPlugin(), new Listener<SoulSandSpeed>() {
-            @Override
-            public void event(final SoulSandSpeed soulSandSpeed) {
-                soulSandSpeed.setCancelled(true);
-            }
-        });
+        // Always cancelling is a constant policy, so the hook doesn't need
+        // to push anything at all
+        Pipe.getInstance().getEventBus().setPolicy(getPlugin(), SoulSandSpeed.class, HookPolicy.ALWAYS_CANCEL);
     }
 
     @Override
@@ -1,7 +1,6 @@
 package lgbt.audrey.basicmods.modules;
 
-import lgbt.audrey.pipe.Pipe;
-import lgbt.audrey.pipe.event.Listener;
+import lgbt.audrey.pipe.event.Subscribe;
 import lgbt.audrey.pipe.event.events.Tick;
 import lgbt.audrey.pipe.plugin.Plugin;
 import lgbt.audrey.pipe.plugin.module.ToggleModule;
@@ -27,19 +26,18 @@ public class ModuleBrightness extends ToggleModule {
     @Override
     public void init() {
         setKeybind(new Keybind(Keyboard.KEY_F));
-        Pipe.getInstance().getEventBus().register(getPlugin(), new Listener<Tick>() {
-            @Override
-            public void event(final Tick tick) {
-                if(isEnabled()) {
-                    //noinspection ConstantConditions
-                    if(!Helper.isWorldNull()) {
-                        for(int i = 0; i < 16; i++) {
-                            Helper.getLightBrightnessTable()[i] = 1.0F;
-                        }
-                    }
+    }
+
+    @Subscribe
+    public void onTick(final Tick tick) {
+        if(isEnabled()) {
+            //noinspection ConstantConditions
+            if(!Helper.isWorldNull()) {
+                for(int i = 0; i < 16; i++) {
+                    Helper.getLightBrightnessTable()[i] = 1.0F;
                 }
             }
-        });
+        }
     }
 
     @Override
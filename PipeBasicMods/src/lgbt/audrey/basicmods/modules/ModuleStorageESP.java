@@ -1,9 +1,8 @@
 package lgbt.audrey.basicmods.modules;
 
-import lgbt.audrey.pipe.Pipe;
 import lgbt.audrey.pipe.config.ColorOption;
 import lgbt.audrey.pipe.config.RangeOption;
-import lgbt.audrey.pipe.event.Listener;
+import lgbt.audrey.pipe.event.Subscribe;
 import lgbt.audrey.pipe.event.events.Render3D;
 import lgbt.audrey.pipe.plugin.Plugin;
 import lgbt.audrey.pipe.plugin.module.ToggleModule;
@@ -42,43 +41,41 @@ public class ModuleStorageESP extends ToggleModule {
         addOption(opacityTracers);
         addOption(opacityBox);
         addOption(thicknessTracers);
+    }
 
-        Pipe.getInstance().getEventBus().register(getPlugin(), new Listener<Render3D>() {
-            @Override
-            @SuppressWarnings("ConstantConditions")
-            public void event(final Render3D render3D) {
-                if(isEnabled()) {
-                    // Sneak bug fix
-                    offset.y(Helper.isEntitySneaking(Helper.getPlayer()) ? 1.54D : 1.62D);
-                    int count = 0;
-                    GLRenderer.pre();
-                    GL11.glDisable(GL11.GL_DEPTH_TEST);
-                    Helper.disableLightmap();
-                    final Vec3 prev = Helper.getEntityPrevVec(Helper.getPlayer());
-                    final Vec3 cur = Helper.getEntityVec(Helper.getPlayer());
-                    p.x(prev.x() + (cur.x() - prev.x()) * render3D.getPartialTickTime());
-                    p.y(prev.y() + (cur.y() - prev.y()) * render3D.getPartialTickTime());
-                    p.z(prev.z() + (cur.z() - prev.z()) * render3D.getPartialTickTime());
-                    for(final Object o : Helper.getLoadedBlockEntities()) {
-                        if(Helper.isBlockEntityChest(o)) {
-                            v.set(Helper.getBlockEntityVec(o));
-                            v2.set(v);
-                            if(v != null && v2 != null) {
-                                v.sub(p);
-                                v2.add(Vec3.unit()).sub(p);
-                                GLRenderer.drawBoxFromPoints(v, v2, colorBox.get() | opacityBox.get() << 24);
-                                GLRenderer.drawLine(offset, v.add(half), colorBox.get() | opacityTracers.get() << 24, thicknessTracers.get());
-                                ++count;
-                            }
-                        }
+    @Subscribe
+    @SuppressWarnings("ConstantConditions")
+    public void onRender3D(final Render3D render3D) {
+        if(isEnabled()) {
+            // Sneak bug fix
+            offset.y(Helper.isEntitySneaking(Helper.getPlayer()) ? 1.54D : 1.62D);
+            int count = 0;
+            GLRenderer.pre();
+            GL11.glDisable(GL11.GL_DEPTH_TEST);
+            Helper.disableLightmap();
+            final Vec3 prev = Helper.getEntityPrevVec(Helper.getPlayer());
+            final Vec3 cur = Helper.getEntityVec(Helper.getPlayer());
+            p.x(prev.x() + (cur.x() - prev.x()) * render3D.getPartialTickTime());
+            p.y(prev.y() + (cur.y() - prev.y()) * render3D.getPartialTickTime());
+            p.z(prev.z() + (cur.z() - prev.z()) * render3D.getPartialTickTime());
+            for(final Object o : Helper.getLoadedBlockEntities()) {
+                if(Helper.isBlockEntityChest(o)) {
+                    v.set(Helper.getBlockEntityVec(o));
+                    v2.set(v);
+                    if(v != null && v2 != null) {
+                        v.sub(p);
+                        v2.add(Vec3.unit()).sub(p);
+                        GLRenderer.drawBoxFromPoints(v, v2, colorBox.get() | opacityBox.get() << 24);
+                        GLRenderer.drawLine(offset, v.add(half), colorBox.get() | opacityTracers.get() << 24, thicknessTracers.get());
+                        ++count;
                     }
-                    Helper.enableLightmap();
-                    GL11.glEnable(GL11.GL_DEPTH_TEST);
-                    GLRenderer.post();
-                    setStatus(count > 0 ? "\247a" + count : "\247cNot rendering");
                 }
             }
-        });
+            Helper.enableLightmap();
+            GL11.glEnable(GL11.GL_DEPTH_TEST);
+            GLRenderer.post();
+            setStatus(count > 0 ? "\247a" + count : "\247cNot rendering");
+        }
     }
 }
 
@@ -1,9 +1,8 @@
 package lgbt.audrey.basicmods.modules;
 
-import lgbt.audrey.pipe.Pipe;
 import lgbt.audrey.pipe.config.ColorOption;
 import lgbt.audrey.pipe.config.RangeOption;
-import lgbt.audrey.pipe.event.Listener;
+import lgbt.audrey.pipe.event.Subscribe;
 import lgbt.audrey.pipe.event.events.Render2D;
 import lgbt.audrey.pipe.event.events.Render3D;
 import lgbt.audrey.pipe.plugin.Plugin;
@@ -53,83 +52,80 @@ public class ModuleTracers extends ToggleModule {
         addOption(opacityTracers);
         addOption(opacityBox);
         addOption(thicknessTracers);
+    }
 
-        Pipe.getInstance().getEventBus().register(getPlugin(), new Listener<Render3D>() {
-            @Override
-            @SuppressWarnings("ConstantConditions")
-            public void event(final Render3D render3D) {
-                if(isEnabled()) {
-                    // Sneak bug fix
-                    //final double offset = Helper.isEntitySneaking(Helper.getPlayer()) ? 1.54D : 1.62D;
-                    int count = 0;
-                    final Vec3 prev = Helper.getEntityPrevVec(Helper.getPlayer());
-                    final Vec3 cur = Helper.getEntityVec(Helper.getPlayer());
-                    p.x(prev.x() + (cur.x() - prev.x()) * render3D.getPartialTickTime());
-                    p.y(prev.y() + (cur.y() - prev.y()) * render3D.getPartialTickTime());
-                    p.z(prev.z() + (cur.z() - prev.z()) * render3D.getPartialTickTime());
-                    GLRenderer.pre();
-                    GL11.glDisable(GL11.GL_DEPTH_TEST);
-                    for(final Object o : Helper.getLoadedEntities()) {
-                        if(!o.equals(Helper.getPlayer())) {
-                            if(Helper.isEntityLiving(o) || Helper.isEntityPlayer(o)) {
-                                final Vec3 e = Helper.getEntityVec(o);
-                                if(e != null) {
-                                    /*e.sub(p);
-                                    GLRenderer.drawLine(e.x(), e.y(), e.z(),
-                                            0, 0, 0,
-                                            Helper.isEntityAnimal(o) ? colorAnimal.get() | opacityTracers.get() << 24 :
-                                                    Helper.isEntityMonster(o) ? colorMonster.get() | opacityTracers.get() << 24 :
-                                                            Helper.isEntityPlayer(o) ? colorPlayer.get() | opacityTracers.get() << 24 :
-                                                                    colorOther.get() | opacityTracers.get() << 24, thicknessTracers.get());
-                                    e.add(p);*/
-                                    v.set(e);
-                                    v2.set(e);
-                                    v.sub(p).sub(half);
-                                    v2.add(Vec3.unit()).sub(p).addY(1D);
-                                    GLRenderer.drawBoxFromPoints(v, v2,
-                                            Helper.isEntityAnimal(o) ? colorAnimal.get() | opacityBox.get() << 24 :
-                                                    Helper.isEntityMonster(o) ? colorMonster.get() | opacityBox.get() << 24 :
-                                                            Helper.isEntityPlayer(o) ? colorPlayer.get() | opacityBox.get() << 24 :
-                                                                    colorOther.get() | opacityBox.get() << 24);
-                                    ++count;
-                                }
-                            }
+    @Subscribe
+    @SuppressWarnings("ConstantConditions")
+    public void onRender3D(final Render3D render3D) {
+        if(isEnabled()) {
+            // Sneak bug fix
+            //final double offset = Helper.isEntitySneaking(Helper.getPlayer()) ? 1.54D : 1.62D;
+            int count = 0;
+            final Vec3 prev = Helper.getEntityPrevVec(Helper.getPlayer());
+            final Vec3 cur = Helper.getEntityVec(Helper.getPlayer());
+            p.x(prev.x() + (cur.x() - prev.x()) * render3D.getPartialTickTime());
+            p.y(prev.y() + (cur.y() - prev.y()) * render3D.getPartialTickTime());
+            p.z(prev.z() + (cur.z() - prev.z()) * render3D.getPartialTickTime());
+            GLRenderer.pre();
+            GL11.glDisable(GL11.GL_DEPTH_TEST);
+            for(final Object o : Helper.getLoadedEntities()) {
+                if(!o.equals(Helper.getPlayer())) {
+                    if(Helper.isEntityLiving(o) || Helper.isEntityPlayer(o)) {
+                        final Vec3 e = Helper.getEntityVec(o);
+                        if(e != null) {
+                            /*e.sub(p);
+                            GLRenderer.drawLine(e.x(), e.y(), e.z(),
+                                    0, 0, 0,
+                                    Helper.isEntityAnimal(o) ? colorAnimal.get() | opacityTracers.get() << 24 :
+                                            Helper.isEntityMonster(o) ? colorMonster.get() | opacityTracers.get() << 24 :
+                                                    Helper.isEntityPlayer(o) ? colorPlayer.get() | opacityTracers.get() << 24 :
+                                                            colorOther.get() | opacityTracers.get() << 24, thicknessTracers.get());
+                            e.add(p);*/
+                            v.set(e);
+                            v2.set(e);
+                            v.sub(p).sub(half);
+                            v2.add(Vec3.unit()).sub(p).addY(1D);
+                            GLRenderer.drawBoxFromPoints(v, v2,
+                                    Helper.isEntityAnimal(o) ? colorAnimal.get() | opacityBox.get() << 24 :
+                                            Helper.isEntityMonster(o) ? colorMonster.get() | opacityBox.get() << 24 :
+                                                    Helper.isEntityPlayer(o) ? colorPlayer.get() | opacityBox.get() << 24 :
+                                                            colorOther.get() | opacityBox.get() << 24);
+                            ++count;
                         }
                     }
-                    p.x(0);
-                    p.y(0);
-                    p.z(0);
-                    GL11.glEnable(GL11.GL_DEPTH_TEST);
-                    GLRenderer.post();
-                    setStatus(count > 0 ? "\247a" + count : "\247cNot rendering");
-                }
-            }
-        });
-        Pipe.eventBus().register(getPlugin(), new Listener<Render2D>() {
-            @SuppressWarnings("ConstantConditions")
-            @Override
-            public void event(final Render2D event) {
-                if(isEnabled()) {
-                    GL11.glPushMatrix();
-                    GLRenderer.pre();
-                    Helper.getLoadedEntities().stream().filter(o -> !o.equals(Helper.getPlayer()))
-                            .filter(o -> Helper.isEntityLiving(o) || Helper.isEntityPlayer(o)).forEach(o -> {
-                        final float[] coords = GLRenderer.worldToScreen(o, 0);
-                        final float x = coords[0];
-                        final float y = coords[1];
-                        ModuleTracers.x = (int) x;
-                        ModuleTracers.y = (int) y;
-                        GLRenderer.drawLine(Helper.getWidth() / 4, Helper.getHeight() / 4, 0,
-                                x, y, 0,
-                                Helper.isEntityAnimal(o) ? colorAnimal.get() | opacityTracers.get() << 24 :
-                                        Helper.isEntityMonster(o) ? colorMonster.get() | opacityTracers.get() << 24 :
-                                                Helper.isEntityPlayer(o) ? colorPlayer.get() | opacityTracers.get() << 24 :
-                                                        colorOther.get() | opacityTracers.get() << 24, thicknessTracers.get());
-                    });
-                    GLRenderer.post();
-                    GL11.glPopMatrix();
                 }
             }
-        });
+            p.x(0);
+            p.y(0);
+            p.z(0);
+            GL11.glEnable(GL11.GL_DEPTH_TEST);
+            GLRenderer.post();
+            setStatus(count > 0 ? "\247a" + count : "\247cNot rendering");
+        }
+    }
+
+    @Subscribe
+    @SuppressWarnings("ConstantConditions")
+    public void onRender2D(final Render2D event) {
+        if(isEnabled()) {
+            GL11.glPushMatrix();
+            GLRenderer.pre();
+            Helper.getLoadedEntities().stream().filter(o -> !o.equals(Helper.getPlayer()))
+                    .filter(o -> Helper.isEntityLiving(o) || Helper.isEntityPlayer(o)).forEach(o -> {
+                final float[] coords = GLRenderer.worldToScreen(o, 0);
+                final float x = coords[0];
+                final float y = coords[1];
+                ModuleTracers.x = (int) x;
+                ModuleTracers.y = (int) y;
+                GLRenderer.drawLine(Helper.getWidth() / 4, Helper.getHeight() / 4, 0,
+                        x, y, 0,
+                        Helper.isEntityAnimal(o) ? colorAnimal.get() | opacityTracers.get() << 24 :
+                                Helper.isEntityMonster(o) ? colorMonster.get() | opacityTracers.get() << 24 :
+                                        Helper.isEntityPlayer(o) ? colorPlayer.get() | opacityTracers.get() << 24 :
+                                                colorOther.get() | opacityTracers.get() << 24, thicknessTracers.get());
+            });
+            GLRenderer.post();
+            GL11.glPopMatrix();
+        }
     }
 }
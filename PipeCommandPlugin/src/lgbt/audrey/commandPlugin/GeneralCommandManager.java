@@ -1,7 +1,8 @@
 package lgbt.audrey.commandPlugin;
 
 import lgbt.audrey.pipe.Pipe;
-import lgbt.audrey.pipe.bytecode.map.ClassMap;
+import lgbt.audrey.pipe.bytecode.map.Accessors;
+import lgbt.audrey.pipe.bytecode.map.Accessors.FieldAccessor;
 import lgbt.audrey.pipe.command.Command;
 import lgbt.audrey.pipe.command.CommandException;
 import lgbt.audrey.pipe.command.CommandManager;
@@ -13,7 +14,6 @@ import lgbt.audrey.pipe.util.helpers.StringHelper;
 import lombok.Getter;
 import lombok.NonNull;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -74,44 +74,38 @@ public class GeneralCommandManager implements CommandManager {
         Pipe.eventBus().register(commandPlugin, new Listener<PacketSend>() {
             @Override
             public void event(final PacketSend event) {
-                if(event.getPacket().getClass().getSimpleName().equals(ClassMap.getClassByName("PacketClientChatMessage").getObfuscatedName())) {
-                    try {
-                        final Field msg = event.getPacket().getClass().getDeclaredField(ClassMap.getClassByName("PacketClientChatMessage").getFields().get("chatMessage"));
-                        msg.setAccessible(true);
-                        final String message = (String) msg.get(event.getPacket());
-                        if(message.startsWith(getCommandPrefix())) {
-                            event.setCancelled(true);
-                            try {
-                                // TODO: Make more friendly to things like printing help
-                                // TODO: Make EnumCommandResult so that we can be more explicit?
-                                if(!executeCommand(message)) {
-                                    final String commandName = message.split(" ")[0].replaceFirst(Pattern.quote(getCommandPrefix()), "")
-                                            .toLowerCase().replaceAll("\\s+", "");
-                                    if(findCommand(commandName) == null) {
-                                        ChatHelper.warn("\2477Command not found: '\247c" + commandName + "\2477'.");
-                                        final Collection<String> possibilities = new ArrayList<>();
-                                        for(final CommandWrapper commandWrapper : commands) {
-                                            final int distance = StringHelper.levenshteinDistance(commandName, commandWrapper.getCommand().getName().toLowerCase().replaceAll("\\s+", ""));
-                                            if(distance < threshold) {
-                                                possibilities.add(commandWrapper.getCommand().getName().toLowerCase().replaceAll("\\s+", ""));
-                                            }
+                if(ChatPacket.message.getOwner().isInstance(event.getPacket())) {
+                    final String message = ChatPacket.message.get(event.getPacket());
+                    if(message.startsWith(getCommandPrefix())) {
+                        event.setCancelled(true);
+                        try {
+                            // TODO: Make more friendly to things like printing help
+                            // TODO: Make EnumCommandResult so that we can be more explicit?
+                            if(!executeCommand(message)) {
+                                final String commandName = message.split(" ")[0].replaceFirst(Pattern.quote(getCommandPrefix()), "")
+                                        .toLowerCase().replaceAll("\\s+", "");
+                                if(findCommand(commandName) == null) {
+                                    ChatHelper.warn("\2477Command not found: '\247c" + commandName + "\2477'.");
+                                    final Collection<String> possibilities = new ArrayList<>();
+                                    for(final CommandWrapper commandWrapper : commands) {
+                                        final int distance = StringHelper.levenshteinDistance(commandName, commandWrapper.getCommand().getName().toLowerCase().replaceAll("\\s+", ""));
+                                        if(distance < threshold) {
+                                            possibilities.add(commandWrapper.getCommand().getName().toLowerCase().replaceAll("\\s+", ""));
                                         }
-                                        if(!possibilities.isEmpty()) {
-                                            ChatHelper.warn("\2477Did you perhaps mean: ");
-                                            possibilities.forEach(p -> ChatHelper.warn("  \2477* \247c" + p));
-                                        }
-                                    } else {
-                                        ChatHelper.warn("\2477Unable to run command '\247c" + commandName + "\2477'.");
                                     }
+                                    if(!possibilities.isEmpty()) {
+                                        ChatHelper.warn("\2477Did you perhaps mean: ");
+                                        possibilities.forEach(p -> ChatHelper.warn("  \2477* \247c" + p));
+                                    }
+                                } else {
+                                    ChatHelper.warn("\2477Unable to run command '\247c" + commandName + "\2477'.");
                                 }
-                            } catch(final CommandException e) {
-                                ChatHelper.warn("\247cCouldn't run command '\2474" + message + "\247c':",
-                                        "\247c" + e.getMessage());
-                                e.printStackTrace();
                             }
+                        } catch(final CommandException e) {
+                            ChatHelper.warn("\247cCouldn't run command '\2474" + message + "\247c':",
+                                    "\247c" + e.getMessage());
+                            e.printStackTrace();
                         }
-                    } catch(NoSuchFieldException | IllegalAccessException e) {
-                        e.printStackTrace();
                     }
                 }
             }
@@ -123,6 +117,16 @@ public class GeneralCommandManager implements CommandManager {
         commands.clear();
     }
 
+    /**
+     * Holds the accessor for the message of an outgoing chat packet. It is
+     * resolved when the first packet is sent, which is long after the
+     * mappings are loaded, and the JIT can treat it as a constant from then
+     * on.
+     */
+    private static final class ChatPacket {
+        private static final FieldAccessor<String> message = Accessors.field("PacketClientChatMessage", "chatMessage");
+    }
+
     private final class CommandWrapper {
         @Getter
         private final Plugin plugin;
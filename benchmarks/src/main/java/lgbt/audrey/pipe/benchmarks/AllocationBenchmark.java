@@ -0,0 +1,69 @@
+package lgbt.audrey.pipe.benchmarks;
+
+import lgbt.audrey.pipe.event.PipeEventBus;
+import lgbt.audrey.pipe.event.events.PacketSend;
+import lgbt.audrey.pipe.event.events.Render3D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes events the way the injected hooks do, both with the pooled
+ * instances and with a new event per push. Run with <tt>-prof gc</tt> to see
+ * the allocation rate per push in <tt>gc.alloc.rate.norm</tt>; the pooled
+ * variants should allocate nothing.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AllocationBenchmark {
+    private final Object packet = new Object();
+    private PipeEventBus bus;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        bus = new PipeEventBus();
+        final BenchPlugin plugin = new BenchPlugin(0);
+        bus.register(plugin, PacketSend.class, e -> blackhole.consume(e.getPacket()));
+        bus.register(plugin, Render3D.class, e -> blackhole.consume(e.getPartialTickTime()));
+    }
+
+    @Benchmark
+    public boolean packetSendPooled() {
+        final PacketSend event = bus.push(PacketSend.obtain(packet));
+        final boolean cancelled = event.isCancelled();
+        event.release();
+        return cancelled;
+    }
+
+    @Benchmark
+    public boolean packetSendAllocated() {
+        return bus.push(new PacketSend(packet)).isCancelled();
+    }
+
+    @Benchmark
+    public void render3DPooled() {
+        bus.push(Render3D.obtain(0.5F)).release();
+    }
+
+    @Benchmark
+    public Object render3DAllocated() {
+        return bus.push(new Render3D(0.5F));
+    }
+}
@@ -0,0 +1,68 @@
+package lgbt.audrey.pipe.benchmarks;
+
+import lgbt.audrey.pipe.util.Cancellable;
+
+/**
+ * Distinct event types for benchmarks that vary the number of types being
+ * pushed. They carry a payload so that listeners have something to read.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class BenchEvents {
+    /**
+     * One instance of each event type, in a fixed order.
+     */
+    public static final Class<?>[] TYPES = {
+            E0.class, E1.class, E2.class, E3.class, E4.class, E5.class, E6.class, E7.class
+    };
+
+    private BenchEvents() {
+    }
+
+    /**
+     * Creates one instance of each of the first <tt>count</tt> types.
+     *
+     * @param count The number of types, at most {@link #TYPES}<tt>.length</tt>
+     * @return The instances
+     */
+    public static BenchEvent[] create(final int count) {
+        final BenchEvent[] events = new BenchEvent[count];
+        for(int i = 0; i < count; i++) {
+            try {
+                events[i] = (BenchEvent) TYPES[i].newInstance();
+            } catch(InstantiationException | IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return events;
+    }
+
+    public abstract static class BenchEvent extends Cancellable {
+        public long payload;
+    }
+
+    public static final class E0 extends BenchEvent {
+    }
+
+    public static final class E1 extends BenchEvent {
+    }
+
+    public static final class E2 extends BenchEvent {
+    }
+
+    public static final class E3 extends BenchEvent {
+    }
+
+    public static final class E4 extends BenchEvent {
+    }
+
+    public static final class E5 extends BenchEvent {
+    }
+
+    public static final class E6 extends BenchEvent {
+    }
+
+    public static final class E7 extends BenchEvent {
+    }
+}
@@ -0,0 +1,22 @@
+package lgbt.audrey.pipe.benchmarks;
+
+import lgbt.audrey.pipe.plugin.BasicPlugin;
+
+/**
+ * A plugin that exists only to own listeners in benchmarks.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class BenchPlugin extends BasicPlugin {
+    private final String name;
+
+    public BenchPlugin(final int index) {
+        name = "bench-" + index;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
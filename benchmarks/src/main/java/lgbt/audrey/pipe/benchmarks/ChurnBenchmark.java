@@ -0,0 +1,84 @@
+package lgbt.audrey.pipe.benchmarks;
+
+import lgbt.audrey.pipe.benchmarks.BenchEvents.BenchEvent;
+import lgbt.audrey.pipe.event.Listener;
+import lgbt.audrey.pipe.event.PipeEventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures registering and unregistering listeners while other threads keep
+ * pushing events, as happens when modules are toggled or plugins are
+ * reloaded in game. Reported separately for the pushing threads and the
+ * churning thread, so that both the cost of a registration change and its
+ * effect on concurrent pushes show up.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ChurnBenchmark {
+    @Param({"1", "30"})
+    public int plugins;
+
+    private PipeEventBus bus;
+    private BenchEvent[] events;
+    private BenchPlugin churner;
+    private Listener<BenchEvent> churned;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup(final Blackhole blackhole) {
+        bus = new PipeEventBus();
+        events = BenchEvents.create(BenchEvents.TYPES.length);
+        for(int p = 0; p < plugins; p++) {
+            final BenchPlugin plugin = new BenchPlugin(p);
+            for(final BenchEvent event : events) {
+                bus.register(plugin, Listener.of((Class<BenchEvent>) event.getClass(), e -> blackhole.consume(e.payload)));
+            }
+        }
+        churner = new BenchPlugin(-1);
+        churned = Listener.of((Class<BenchEvent>) events[0].getClass(), e -> blackhole.consume(e));
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(3)
+    public void push(final PushState state) {
+        // Pushing shared instances from several threads is fine here, as no
+        // listener writes to them
+        bus.push(events[state.next++ & events.length - 1]);
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(1)
+    public void registerUnregister() {
+        bus.register(churner, churned);
+        bus.unregister(churner, churned);
+    }
+
+    @State(Scope.Thread)
+    public static class PushState {
+        private int next;
+    }
+}
@@ -0,0 +1,128 @@
+package lgbt.audrey.pipe.benchmarks;
+
+import lgbt.audrey.pipe.benchmarks.BenchEvents.BenchEvent;
+import lgbt.audrey.pipe.event.Listener;
+import lgbt.audrey.pipe.event.PipeEventBus;
+import lgbt.audrey.pipe.event.Priority;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Measures {@link PipeEventBus#push(Object)} for a range of client shapes:
+ * how many plugins there are, how many listeners each plugin has per event
+ * type, how many event types are being pushed, and how often the first
+ * listener cancels the event.
+ * <p>
+ * Listeners are spread over several distinct lambda classes, so that call
+ * sites see roughly as many receiver types as they would with real plugins.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PushBenchmark {
+    /**
+     * Size of the precomputed cancellation pattern. A power of two.
+     */
+    private static final int PATTERN = 1024;
+
+    @Param({"1", "10", "30"})
+    public int plugins;
+
+    @Param({"1", "5"})
+    public int listenersPerPlugin;
+
+    /**
+     * A power of two, as events are picked by masking the push counter.
+     */
+    @Param({"1", "8"})
+    public int eventTypes;
+
+    @Param({"0", "0.5"})
+    public double cancelRate;
+
+    private PipeEventBus bus;
+    private BenchEvent[] events;
+    private boolean[] cancel;
+    private int next;
+
+    @Setup
+    public void setup(final Blackhole blackhole) {
+        if(Integer.bitCount(eventTypes) != 1) {
+            throw new IllegalArgumentException("eventTypes must be a power of two, not " + eventTypes);
+        }
+        bus = new PipeEventBus();
+        events = BenchEvents.create(eventTypes);
+        cancel = new boolean[PATTERN];
+        final Random random = new Random(42);
+        for(int i = 0; i < PATTERN; i++) {
+            cancel[i] = random.nextDouble() < cancelRate;
+        }
+
+        final BenchPlugin filterOwner = new BenchPlugin(-1);
+        for(final BenchEvent event : events) {
+            register(filterOwner, event.getClass(), Priority.FIRST, e -> e.setCancelled(cancel[(int) e.payload & PATTERN - 1]));
+        }
+        for(int p = 0; p < plugins; p++) {
+            final BenchPlugin plugin = new BenchPlugin(p);
+            for(final BenchEvent event : events) {
+                for(int l = 0; l < listenersPerPlugin; l++) {
+                    register(plugin, event.getClass(), Priority.NORMAL, listener(p * listenersPerPlugin + l, blackhole));
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void register(final BenchPlugin plugin, final Class<?> type, final Priority priority,
+                          final Consumer<BenchEvent> consumer) {
+        bus.register(plugin, Listener.of((Class<BenchEvent>) type, priority, false, consumer));
+    }
+
+    /**
+     * Returns one of a handful of distinct listener bodies.
+     */
+    private static Consumer<BenchEvent> listener(final int index, final Blackhole blackhole) {
+        switch(index % 5) {
+            case 0:
+                return e -> blackhole.consume(e.payload);
+            case 1:
+                return e -> blackhole.consume(e.payload + 1);
+            case 2:
+                return e -> blackhole.consume(e.payload ^ 0x5555);
+            case 3:
+                return e -> blackhole.consume(e);
+            default:
+                return e -> blackhole.consume(e.isCancelled());
+        }
+    }
+
+    @Benchmark
+    public Object push() {
+        final int i = next++;
+        // The counter overflows on long runs, so mask rather than take the remainder
+        final BenchEvent event = events[i & events.length - 1];
+        event.payload = i;
+        event.setCancelled(false);
+        return bus.push(event);
+    }
+}
@@ -1,31 +1,41 @@
 package lgbt.audrey.pipe;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import lgbt.audrey.pipe.bytecode.Generator;
 import lgbt.audrey.pipe.bytecode.Injector;
+import lgbt.audrey.pipe.bytecode.InjectorReloader;
+import lgbt.audrey.pipe.bytecode.InjectorTransformer;
 import lgbt.audrey.pipe.bytecode.Redefiner;
+import lgbt.audrey.pipe.bytecode.TransformCache;
 import lgbt.audrey.pipe.bytecode.Version;
+import lgbt.audrey.pipe.bytecode.map.BinaryMappings;
 import lgbt.audrey.pipe.bytecode.map.ClassMap;
 import lgbt.audrey.pipe.bytecode.map.MappedClass;
+import lgbt.audrey.pipe.bytecode.map.MappingReader;
 import lgbt.audrey.pipe.bytecode.version.Version1_10_X;
 import lgbt.audrey.pipe.bytecode.version.Version1_9_X;
+import lgbt.audrey.pipe.util.StartupTrace;
+import lgbt.audrey.pipe.util.StartupTrace.Span;
+import lombok.Getter;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.instrument.ClassDefinition;
 import java.lang.instrument.Instrumentation;
 import java.lang.instrument.UnmodifiableClassException;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.nio.file.Files;
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * A reimplementation of the <a href="https://github.com/curlpipesh/pipe/">Pipe</a>
  * mod for the game <tt>Minecraft</tt>. Done mainly to improve on the structure
  * and implementation of its predecessor.
+ * <p>
+ * Pipe is normally started with <tt>-javaagent</tt>, but can also be
+ * attached to a running game. Attaching it again later re-reads the
+ * mappings and re-runs the injectors over the classes that are already
+ * loaded; attaching it with <tt>revert</tt> as the agent argument undoes
+ * every patch instead. See {@link InjectorReloader}.
  *
  * @author c
  * @since 7/10/15
@@ -40,15 +50,49 @@ public final class Agent {
         versions.put("1.10.X", new Version1_10_X());
     }
 
+    private static File mappings;
+
+    /**
+     * The cache of transformed and generated classes, or null if it is
+     * disabled.
+     */
+    private static volatile TransformCache cache;
+
+    @Getter
+    private static Instrumentation instrumentation;
+
+    @Getter
+    private static InjectorReloader reloader;
+
     private Agent() {
     }
 
     public static void premain(final String agentArgs, final Instrumentation inst) {
+        try(final Span ignored = StartupTrace.begin("agent", "premain")) {
+            start(inst, false);
+        }
+    }
+
+    public static synchronized void agentmain(final String agentArgs, final Instrumentation inst) {
+        if(reloader == null) {
+            Pipe.getLogger().info("Attaching to a running game");
+            try(final Span ignored = StartupTrace.begin("agent", "agentmain")) {
+                start(inst, true);
+            }
+        } else if("revert".equals(agentArgs)) {
+            reloader.revert();
+        } else {
+            reload();
+        }
+    }
+
+    private static void start(final Instrumentation inst, final boolean attached) {
+        instrumentation = inst;
         final String propertyMappings = System.getProperty("pipe.mappings.path", "null");
         final String propertyVersion = System.getProperty("pipe.game.version", "null");
         Pipe.getLogger().info("Using mappings '" + propertyMappings + "' for game version '" + propertyVersion + '\'');
         if(propertyMappings.equals("null")) {
-            throw new IllegalArgumentException("No mappings path passed! Restart with -Dpipe.mappings.path=/path/to/mapping.json");
+            throw new IllegalArgumentException("No mappings path passed! Restart with -Dpipe.mappings.path=/path/to/mapping.json (or compiled .pipemap)");
         }
         if(propertyVersion.equals("null")) {
             throw new IllegalArgumentException("No version passed! Restart with -Dpipe.game.version=MAJOR_MINOR_X (Ex. 1_9_X)");
@@ -58,59 +102,99 @@ public final class Agent {
         }
         Pipe.getInstance().setGameVersion(versions.get(propertyVersion));
 
-        Pipe.getLogger().info("Reading class mappings!");
-
-        final Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        try {
-            ClassMap.getMappedClasses().addAll(gson.fromJson(Files.lines(new File(propertyMappings).toPath())
-                    .reduce((t, u) -> t + u).get(), new TypeToken<ArrayList<MappedClass>>() {}.getType()));
-        } catch(final IOException e) {
-            Pipe.getLogger().severe("Class map reading failed!");
-            throw new RuntimeException(e);
-        }
+        mappings = new File(propertyMappings);
+        readMappings();
 
         Pipe.getLogger().info("Adding transformers!");
 
-        for(final Injector injector : Pipe.getInstance().getGameVersion().getInjectors()) {
-            inst.addTransformer(injector);
+        final Injector[] injectors = Pipe.getInstance().getGameVersion().getInjectors();
+        for(final Injector injector : injectors) {
             Pipe.getLogger().info("Added Injector: " + injector.getClassToInject().getDeobfuscatedName() + " : " + injector.getClassToInject().getObfuscatedName());
         }
-
-        // TODO: More generic
-        // It's sad that we have to do this, but for some reason, the instrumentation agent
-        // doesn't see these classes when we try to do shit, so we have to forcibly load them
-        // so that they get changed.
-        if(Pipe.getInstance().getGameVersion() instanceof Version1_9_X
-                || Pipe.getInstance().getGameVersion() instanceof Version1_10_X) {
-            try {
-                Class.forName(ClassMap.getClassByName("EntityRenderer").getObfuscatedName());
-                Class.forName(ClassMap.getClassByName("RenderGlobal").getObfuscatedName());
-                Class.forName(ClassMap.getClassByName("GuiMainMenu").getObfuscatedName());
-            } catch(final ClassNotFoundException e) {
-                e.printStackTrace();
-            }
+        cache = TransformCache.fromProperties(mappings, injectors);
+        final InjectorTransformer transformer = new InjectorTransformer(cache, injectors);
+        inst.addTransformer(transformer, true);
+        reloader = new InjectorReloader(inst, transformer);
+        Pipe.getLogger().info("Routing " + injectors.length + " injectors for " + transformer.getTargetCount() + " classes");
+        if(attached) {
+            // The game has already loaded most of the target classes
+            reloader.retransform();
+        } else {
+            // Patch the target classes while the game is still starting up,
+            // rather than on whichever thread happens to load them first
+            transformer.preTransform(ClassLoader.getSystemClassLoader());
         }
 
         Pipe.getLogger().info("Attempting to redefine classes!");
         try {
             for(final Redefiner r : Pipe.getInstance().getGameVersion().getRedefiners()) {
-                inst.redefineClasses(r.redefine());
+                try(final Span span = StartupTrace.begin("bytecode", "redefine " + r.getClass().getSimpleName())) {
+                    final ClassDefinition definition = r.redefine();
+                    span.arg("class", definition.getDefinitionClass().getName())
+                            .arg("bytes", definition.getDefinitionClassFile().length);
+                    inst.redefineClasses(definition);
+                }
             }
         } catch(ClassNotFoundException | UnmodifiableClassException e) {
             Pipe.getLogger().severe("Class redefinition failed! Not much you can do about this one.");
             e.printStackTrace();
             throw new RuntimeException(e);
         }
+        if(attached) {
+            // The game is past the startGame hook that would normally do this
+            Pipe.getInstance().init();
+        }
+    }
+
+    /**
+     * Re-reads the mappings, recreates the game version's injectors, and
+     * re-applies them to every class that is already loaded.
+     *
+     * @throws IllegalStateException if Pipe wasn't started as an agent
+     */
+    public static synchronized void reload() {
+        if(reloader == null) {
+            throw new IllegalStateException("Pipe wasn't started as an agent; there is nothing to reload");
+        }
+        readMappings();
+        final Injector[] injectors = Pipe.getInstance().getGameVersion().getInjectors();
+        cache = TransformCache.fromProperties(mappings, injectors);
+        reloader.reload(cache, injectors);
     }
 
-    public static void defineClass(final ClassLoader cl, final byte[] clazz, final String fullName) {
-        final Method define;
+    private static void readMappings() {
+        Pipe.getLogger().info("Reading class mappings!");
+
         try {
-            define = ClassLoader.class.getDeclaredMethod("defineClass", String.class, byte[].class, int.class, int.class);
-            define.setAccessible(true);
-            define.invoke(cl, fullName, clazz, 0, clazz.length);
-        } catch(NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            final long start = System.nanoTime();
+            final List<MappedClass> classes;
+            try(final Span span = StartupTrace.begin("mappings", "read mappings")) {
+                final boolean binary = BinaryMappings.isBinary(mappings);
+                classes = binary ? BinaryMappings.map(mappings) : MappingReader.read(mappings);
+                span.arg("bytes", mappings.length()).arg("binary", binary);
+            }
+            try(final Span span = StartupTrace.begin("mappings", "index ClassMap")) {
+                ClassMap.load(classes);
+                span.arg("classes", classes.size());
+            }
+            final long nanos = System.nanoTime() - start;
+            Pipe.getLogger().info(String.format("Read %d mapped classes in %.1f ms, retaining about %d KiB",
+                    classes.size(), nanos / 1e6, MappingReader.estimateRetainedSize(instrumentation, classes) / 1024));
+        } catch(final IOException e) {
+            Pipe.getLogger().severe("Class map reading failed!");
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Runs a generator, or loads its output from the cache if the mappings
+     * and the generator haven't changed since it last ran.
+     *
+     * @param generator The generator
+     * @return The generated class
+     */
+    public static byte[] generate(final Generator generator) {
+        final TransformCache current = cache;
+        return current == null ? generator.generate() : current.generate(generator);
+    }
 }
@@ -2,14 +2,16 @@ package lgbt.audrey.pipe;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import lgbt.audrey.pipe.bytecode.ClassDefiner;
 import lgbt.audrey.pipe.bytecode.Generator;
+import lgbt.audrey.pipe.bytecode.SharedArchiveTraining;
 import lgbt.audrey.pipe.bytecode.Version;
 import lgbt.audrey.pipe.command.Command.CommandBuilder;
 import lgbt.audrey.pipe.command.CommandManager;
 import lgbt.audrey.pipe.command.internal.CommandDebug;
 import lgbt.audrey.pipe.command.internal.CommandSet;
 import lgbt.audrey.pipe.event.EventBus;
-import lgbt.audrey.pipe.event.Listener;
+import lgbt.audrey.pipe.event.Hooks;
 import lgbt.audrey.pipe.event.PipeEventBus;
 import lgbt.audrey.pipe.event.events.ModFinishedLoading;
 import lgbt.audrey.pipe.event.events.Render3D;
@@ -19,6 +21,8 @@ import lgbt.audrey.pipe.plugin.PluginManager;
 import lgbt.audrey.pipe.plugin.PluginManifest;
 import lgbt.audrey.pipe.plugin.serialization.ManifestDeserializer;
 import lgbt.audrey.pipe.util.GLRenderer;
+import lgbt.audrey.pipe.util.StartupTrace;
+import lgbt.audrey.pipe.util.StartupTrace.Span;
 import lgbt.audrey.pipe.util.helpers.ChatHelper;
 import lgbt.audrey.pipe.util.helpers.Helper;
 import lombok.AccessLevel;
@@ -26,9 +30,11 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.logging.Handler;
 import java.util.logging.LogRecord;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 /**
  * The main class of the mod. Note that this class is different from {@link Agent}:
@@ -85,7 +91,6 @@ public final class Pipe {
      * an instance of {@link PipeEventBus}.
      */
     @Getter
-    @Setter
     @SuppressWarnings("FieldMayBeFinal")
     private EventBus eventBus = new PipeEventBus();
 
@@ -157,38 +162,59 @@ public final class Pipe {
             } else {
                 getLogger().warning("No command manager available; internal commands will not be added.");
             }
-            eventBus.register(this, new Listener<Render3D>() {
-                @Override
-                public void event(final Render3D event) {
-                    // This allows gluProject to work
-                    GLRenderer.updateMatrices();
-                }
-            });
+            // This allows gluProject to work
+            eventBus.register(this, Render3D.class, event -> GLRenderer.updateMatrices());
         }
     };
 
     private Pipe() {
+        Hooks.bind(eventBus);
         pluginManager = new PluginManager(this);
         gson = new GsonBuilder()
                 .registerTypeAdapter(PluginManifest.class, new ManifestDeserializer())
                 .setPrettyPrinting().create();
     }
 
+    /**
+     * Replaces the {@link EventBus} used by the client. The hooks in game
+     * code follow the new bus from then on.
+     *
+     * @param eventBus The new bus
+     */
+    public void setEventBus(final EventBus eventBus) {
+        this.eventBus = eventBus;
+        Hooks.bind(eventBus);
+    }
+
     /**
      * Initializes the client. Responsible for delegation of responsibilities
      * like plugin initialization, file structure creation, and so on.
      */
     public void init() {
-        logger.info("Starting up Pipe...");
-        setupDirectories();
-        pluginManager.init();
-        internalPlugin.onEnable();
-        // TODO: Problem if plugins rely on it?
-        for(final Generator generator : gameVersion.getGenerators()) {
-            Agent.defineClass(Pipe.class.getClassLoader(), generator.generate(), generator.getClassName());
-            logger.info("Generated: " + generator.getClassName());
+        try(final Span ignored = StartupTrace.begin("init", "Pipe.init")) {
+            logger.info("Starting up Pipe...");
+            setupDirectories();
+            // Every plugin and module registers its listeners one at a time
+            eventBus.batch(() -> {
+                pluginManager.init();
+                try(final Span span = StartupTrace.begin("plugin", "onEnable " + internalPlugin.getName())) {
+                    internalPlugin.onEnable();
+                }
+            });
+            // TODO: Problem if plugins rely on it?
+            for(final Generator generator : gameVersion.getGenerators()) {
+                try(final Span span = StartupTrace.begin("bytecode", "generate " + generator.getClassName())) {
+                    final byte[] bytes = Agent.generate(generator);
+                    span.arg("bytes", bytes.length);
+                    ClassDefiner.define(generator.getNeighbour(), bytes);
+                }
+                logger.info("Generated: " + generator.getClassName());
+            }
+            eventBus.push(new ModFinishedLoading());
         }
-        eventBus.push(new ModFinishedLoading());
+        StartupTrace.write(pipeDataDir);
+        SharedArchiveTraining.finish(pipeDataDir, Arrays.stream(gameVersion.getGenerators())
+                .map(Generator::getClassName).collect(Collectors.toList()));
     }
 
     /**
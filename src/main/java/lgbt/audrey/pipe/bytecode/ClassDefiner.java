@@ -0,0 +1,107 @@
+package lgbt.audrey.pipe.bytecode;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Defines generated classes next to an existing class, in the same package
+ * and class loader.
+ * <p>
+ * On Java 9 and later this goes through
+ * <tt>MethodHandles.Lookup#defineClass</tt>, on a private lookup in the
+ * neighbouring class, which is supported API and keeps working under strong
+ * encapsulation. The lookup methods are resolved once; there is no
+ * reflection per class. On Java 8, which has neither, it falls back to
+ * calling {@link ClassLoader}'s protected <tt>defineClass</tt> through
+ * reflection.
+ * <p>
+ * Generated classes are ordinary named classes rather than hidden ones,
+ * because the rest of Pipe and its plugins link against them by name.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class ClassDefiner {
+    /**
+     * <tt>MethodHandles.privateLookupIn(Class, Lookup)</tt>, or null before
+     * Java 9.
+     */
+    private static final MethodHandle PRIVATE_LOOKUP_IN;
+
+    /**
+     * <tt>Lookup#defineClass(byte[])</tt>, or null before Java 9.
+     */
+    private static final MethodHandle LOOKUP_DEFINE_CLASS;
+
+    static {
+        MethodHandle privateLookupIn = null;
+        MethodHandle defineClass = null;
+        try {
+            final Lookup lookup = MethodHandles.publicLookup();
+            privateLookupIn = lookup.findStatic(MethodHandles.class, "privateLookupIn",
+                    MethodType.methodType(Lookup.class, Class.class, Lookup.class));
+            defineClass = lookup.findVirtual(Lookup.class, "defineClass", MethodType.methodType(Class.class, byte[].class));
+        } catch(final NoSuchMethodException | IllegalAccessException e) {
+            // Java 8; see LegacyDefiner
+        }
+        PRIVATE_LOOKUP_IN = privateLookupIn;
+        LOOKUP_DEFINE_CLASS = defineClass;
+    }
+
+    private ClassDefiner() {
+    }
+
+    /**
+     * Defines a class.
+     *
+     * @param neighbour A class in the same package as the new class. The new
+     *                  class is defined in its class loader.
+     * @param bytes     The class file of the new class
+     * @return The new class
+     * @throws IllegalStateException if the class couldn't be defined
+     */
+    public static Class<?> define(final Class<?> neighbour, final byte[] bytes) {
+        if(LOOKUP_DEFINE_CLASS == null) {
+            return LegacyDefiner.define(neighbour.getClassLoader(), bytes);
+        }
+        try {
+            final Lookup lookup = (Lookup) PRIVATE_LOOKUP_IN.invokeExact(neighbour, MethodHandles.lookup());
+            return (Class<?>) LOOKUP_DEFINE_CLASS.invokeExact(lookup, bytes);
+        } catch(final RuntimeException | Error e) {
+            throw e;
+        } catch(final Throwable t) {
+            throw new IllegalStateException("Couldn't define a class next to " + neighbour.getName(), t);
+        }
+    }
+
+    /**
+     * The Java 8 path. Kept in its own class so that the reflective lookup
+     * only happens when it is actually needed.
+     */
+    private static final class LegacyDefiner {
+        private static final Method DEFINE_CLASS;
+
+        static {
+            try {
+                DEFINE_CLASS = ClassLoader.class.getDeclaredMethod("defineClass", String.class, byte[].class,
+                        int.class, int.class);
+                DEFINE_CLASS.setAccessible(true);
+            } catch(final NoSuchMethodException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private static Class<?> define(final ClassLoader classLoader, final byte[] bytes) {
+            try {
+                // A null name makes the loader take it from the class file
+                return (Class<?>) DEFINE_CLASS.invoke(classLoader, null, bytes, 0, bytes.length);
+            } catch(final IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Couldn't define class", e);
+            }
+        }
+    }
+}
@@ -7,5 +7,15 @@ package lgbt.audrey.pipe.bytecode;
 public interface Generator {
     byte[] generate();
 
+    /**
+     * @return The binary name of the generated class, e.g.
+     *         <tt>lgbt.audrey.pipe.gui.GuiScreen</tt>
+     */
     String getClassName();
+
+    /**
+     * @return A class in the same package as the generated class, which
+     *         {@link ClassDefiner} defines it next to
+     */
+    Class<?> getNeighbour();
 }
@@ -1,24 +1,35 @@
 package lgbt.audrey.pipe.bytecode;
 
-import lgbt.audrey.pipe.Pipe;
 import lgbt.audrey.pipe.bytecode.map.MappedClass;
+import lgbt.audrey.pipe.event.Hooks;
 import lombok.Getter;
 import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.ClassNode;
-import org.objectweb.asm.util.CheckClassAdapter;
-
-import java.io.PrintWriter;
-import java.lang.instrument.ClassFileTransformer;
-import java.lang.instrument.IllegalClassFormatException;
-import java.security.ProtectionDomain;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.MethodInsnNode;
 
 /**
+ * A patch to a single mapped class. Injectors aren't transformers
+ * themselves; they are all routed through one {@link InjectorTransformer},
+ * which parses and writes each target class once for all of its injectors.
+ * <p>
+ * The {@link ClassNode} passed to
+ * {@link #inject(ClassReader, ClassNode, InsnIndex)} only holds the class
+ * header and the methods and fields that the injector claimed through
+ * {@link #isTargetMethod(String, String)} and
+ * {@link #isTargetField(String, String)}. Everything else is copied into the
+ * transformed class verbatim, without ever being parsed. Injection points
+ * should be found through the {@link InsnIndex} that is passed along with
+ * it, which all of the class's injectors share.
+ *
  * @author audrey
  * @since 12/17/15.
  */
-public abstract class Injector implements ClassFileTransformer, Opcodes {
+public abstract class Injector implements Opcodes {
     @Getter
     private final MappedClass classToInject;
 
@@ -26,26 +37,85 @@ public abstract class Injector implements ClassFileTransformer, Opcodes {
         this.classToInject = classToInject;
     }
 
-    @Override
-    @SuppressWarnings({"ConstantConditions", "unchecked"})
-    public final byte[] transform(final ClassLoader classLoader, final String s, final Class<?> aClass, final ProtectionDomain protectionDomain, final byte[] bytes) throws IllegalClassFormatException {
-        if(classToInject.getObfuscatedName().equals(s)) {
-            Pipe.getLogger().info("Injecting mapped class [" + classToInject.getDeobfuscatedName() + ','
-                    + classToInject.getObfuscatedName() + "]...");
-            final ClassReader cr = new ClassReader(bytes);
-            final ClassNode cn = new ClassNode();
-            cr.accept(cn, 0);
-            inject(cr, cn);
-            final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
-            cn.accept(cw);
-            Pipe.getLogger().info("Done!");
-            final byte[] cwBytes = cw.toByteArray();
-            CheckClassAdapter.verify(new ClassReader(cwBytes), false, new PrintWriter(System.err));
-            return cwBytes;
-        } else {
-            throw new IllegalStateException("Wrong class...");
-        }
+    /**
+     * Returns whether the given method of the target class is patched by this
+     * injector, and so needs to be expanded for
+     * {@link #inject(ClassReader, ClassNode, InsnIndex)}.
+     *
+     * @param name The (obfuscated) name of the method
+     * @param desc The descriptor of the method
+     * @return Whether the method is patched
+     */
+    protected boolean isTargetMethod(final String name, final String desc) {
+        return false;
+    }
+
+    /**
+     * Returns whether the given field of the target class is patched by this
+     * injector, and so needs to be expanded for
+     * {@link #inject(ClassReader, ClassNode, InsnIndex)}.
+     *
+     * @param name The (obfuscated) name of the field
+     * @param desc The descriptor of the field
+     * @return Whether the field is patched
+     */
+    protected boolean isTargetField(final String name, final String desc) {
+        return false;
+    }
+
+    /**
+     * Wraps an event hook so that it is skipped while nobody listens for its
+     * event; see {@link Hooks}. The hook must leave the operand stack the
+     * way it found it.
+     *
+     * @param event The simple name of the event class, e.g.
+     *              <tt>Render3D</tt>. {@link Hooks} must have a guard for it.
+     * @param hook  The instructions that push the event
+     * @return The guarded hook
+     */
+    protected static InsnList guard(final String event, final InsnList hook) {
+        final LabelNode skip = new LabelNode();
+        final InsnList list = new InsnList();
+        list.add(new MethodInsnNode(INVOKESTATIC, "lgbt/audrey/pipe/event/Hooks", "has" + event, "()Z", false));
+        list.add(new JumpInsnNode(IFEQ, skip));
+        list.add(hook);
+        list.add(skip);
+        return list;
+    }
+
+    /**
+     * Like {@link #guard(String, InsnList)}, for hooks of cancellable events.
+     * While the event's {@link lgbt.audrey.pipe.event.HookPolicy} is
+     * <tt>ALWAYS_CANCEL</tt>, the given cancellation instructions run
+     * instead of the hook.
+     *
+     * @param event    The simple name of the event class, e.g.
+     *                 <tt>PacketSend</tt>. {@link Hooks} must have both
+     *                 guards for it.
+     * @param hook     The instructions that push the event
+     * @param onCancel What the hook does if the event was cancelled, e.g.
+     *                 return from the method
+     * @return The guarded hook
+     */
+    protected static InsnList guardCancellable(final String event, final InsnList hook, final InsnList onCancel) {
+        final LabelNode notCancelled = new LabelNode();
+        final InsnList list = new InsnList();
+        list.add(new MethodInsnNode(INVOKESTATIC, "lgbt/audrey/pipe/event/Hooks", "cancels" + event, "()Z", false));
+        list.add(new JumpInsnNode(IFEQ, notCancelled));
+        list.add(onCancel);
+        list.add(notCancelled);
+        list.add(guard(event, hook));
+        return list;
+    }
+
+    /**
+     * @return Instructions that return from a <tt>void</tt> method
+     */
+    protected static InsnList returning() {
+        final InsnList list = new InsnList();
+        list.add(new InsnNode(RETURN));
+        return list;
     }
 
-    protected abstract void inject(ClassReader cr, ClassNode cn);
+    protected abstract void inject(ClassReader cr, ClassNode cn, InsnIndex index);
 }
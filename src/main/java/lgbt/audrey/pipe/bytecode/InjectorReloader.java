@@ -0,0 +1,128 @@
+package lgbt.audrey.pipe.bytecode;
+
+import lgbt.audrey.pipe.Pipe;
+import lgbt.audrey.pipe.event.LatencyHistogram;
+import lgbt.audrey.pipe.util.StartupTrace;
+import lgbt.audrey.pipe.util.StartupTrace.Span;
+import lombok.Getter;
+
+import java.lang.instrument.Instrumentation;
+import java.lang.instrument.UnmodifiableClassException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Re-runs an {@link InjectorTransformer} over game classes that are already
+ * loaded, through {@link Instrumentation#retransformClasses(Class[])}. This
+ * is what lets injectors be swapped out or their patches be undone without
+ * restarting the game.
+ * <p>
+ * Retransforming always starts over from the game's own class files, so
+ * {@link #revert() reverting} just retransforms every target while the
+ * transformer is disabled. The JVM won't let a retransformation change the
+ * shape of a class: injectors that change a class's fields, methods or
+ * modifiers (e.g. to make a field public) can only be applied when the class
+ * is first loaded. Such classes keep their current definition, and the
+ * failure is logged.
+ * <p>
+ * How long every pass takes is recorded in {@link #getPasses()}.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class InjectorReloader {
+    private final Instrumentation instrumentation;
+
+    @Getter
+    private final InjectorTransformer transformer;
+
+    /**
+     * The duration of every retransformation pass so far.
+     */
+    @Getter
+    private final LatencyHistogram passes = new LatencyHistogram();
+
+    /**
+     * How long the last pass took, in nanoseconds.
+     */
+    @Getter
+    private volatile long lastPassNanos;
+
+    public InjectorReloader(final Instrumentation instrumentation, final InjectorTransformer transformer) {
+        if(!instrumentation.isRetransformClassesSupported()) {
+            throw new IllegalStateException("This JVM doesn't support retransforming classes; "
+                    + "is Can-Retransform-Classes missing from the agent's manifest?");
+        }
+        this.instrumentation = instrumentation;
+        this.transformer = transformer;
+    }
+
+    /**
+     * Re-applies the current injectors to every loaded target class.
+     *
+     * @return The number of classes that were retransformed
+     */
+    public synchronized int retransform() {
+        transformer.setEnabled(true);
+        return retransform(transformer.getTargets());
+    }
+
+    /**
+     * Replaces the injectors and applies the new ones to every loaded class
+     * that either the old or the new injectors target, so that patches that
+     * are no longer wanted are undone.
+     *
+     * @param cache     The cache of transformed classes for the new
+     *                  injectors, or null for none
+     * @param injectors The new injectors
+     * @return The number of classes that were retransformed
+     */
+    public synchronized int reload(final TransformCache cache, final Injector... injectors) {
+        final Set<String> targets = new HashSet<>(transformer.getTargets());
+        transformer.setInjectors(cache, injectors);
+        transformer.setEnabled(true);
+        targets.addAll(transformer.getTargets());
+        return retransform(targets);
+    }
+
+    /**
+     * Undoes every patch, leaving the game's classes as they were shipped.
+     * Classes loaded from now on aren't patched either, until
+     * {@link #retransform()} or {@link #reload(TransformCache, Injector...)}
+     * is called.
+     *
+     * @return The number of classes that were retransformed
+     */
+    public synchronized int revert() {
+        transformer.setEnabled(false);
+        return retransform(transformer.getTargets());
+    }
+
+    private int retransform(final Set<String> classNames) {
+        final long start = System.nanoTime();
+        int done = 0;
+        int failed = 0;
+        try(final Span span = StartupTrace.begin("bytecode", "retransform pass")) {
+            for(final Class<?> clazz : instrumentation.getAllLoadedClasses()) {
+                if(!classNames.contains(clazz.getName().replace('.', '/')) || !instrumentation.isModifiableClass(clazz)) {
+                    continue;
+                }
+                // One at a time, so that one class the JVM refuses doesn't
+                // hold back all of the others
+                try {
+                    instrumentation.retransformClasses(clazz);
+                    done++;
+                } catch(final UnmodifiableClassException | UnsupportedOperationException | LinkageError e) {
+                    failed++;
+                    Pipe.getLogger().warning("Couldn't retransform " + clazz.getName() + "; it keeps its current definition: " + e);
+                }
+            }
+            span.arg("classes", done).arg("failed", failed);
+        }
+        lastPassNanos = System.nanoTime() - start;
+        passes.record(lastPassNanos);
+        Pipe.getLogger().info(String.format("Retransformed %d classes (%d failed) in %.1f ms; %d passes, mean %.1f ms",
+                done, failed, lastPassNanos / 1e6, passes.getCount(), passes.getMean() / 1e6));
+        return done;
+    }
+}
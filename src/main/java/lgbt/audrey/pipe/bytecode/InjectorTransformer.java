@@ -0,0 +1,444 @@
+package lgbt.audrey.pipe.bytecode;
+
+import lgbt.audrey.pipe.Pipe;
+import lgbt.audrey.pipe.util.StartupTrace;
+import lgbt.audrey.pipe.util.StartupTrace.Span;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.util.CheckClassAdapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The one {@link ClassFileTransformer} that every {@link Injector} is run
+ * through. The JVM calls every registered transformer for every class it
+ * loads, so this looks the class up by its internal name and returns
+ * straight away for anything that isn't a target.
+ * <p>
+ * Target classes are transformed in two streaming passes over one
+ * {@link ClassReader}. The first pass only expands the methods and fields
+ * that the class's injectors claim into a {@link ClassNode}, skipping over
+ * the code of everything else, and every injector is then applied to that
+ * node in registration order, all sharing one {@link InsnIndex}. The second
+ * pass feeds the reader into a {@link ClassWriter} that shares its constant
+ * pool, substituting the patched members as it goes, so every untouched
+ * method is copied across byte for byte instead of being parsed and
+ * re-assembled.
+ * <p>
+ * Target classes can be {@link #preTransform(ClassLoader) transformed ahead
+ * of time} on worker threads while the game is still starting up. When the
+ * JVM then loads one, the transformer just hands back the prepared bytes,
+ * waiting for them if they aren't done yet.
+ * <p>
+ * If a {@link TransformCache} is given, classes that it already holds are
+ * returned from it without going through ASM at all, and freshly
+ * transformed classes are stored in it.
+ * <p>
+ * The transformer can also be run again over classes that are already
+ * loaded, through {@link InjectorReloader}, after its injectors have been
+ * {@link #setInjectors(TransformCache, Injector...) replaced} or it has been
+ * {@link #setEnabled(boolean) disabled}.
+ * <p>
+ * Transformed classes are only run through ASM's verifier when the
+ * <tt>pipe.bytecode.verify</tt> system property is set. Verification then
+ * happens on a background thread, and any problems are logged.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class InjectorTransformer implements ClassFileTransformer {
+    private static final boolean VERIFY = Boolean.getBoolean("pipe.bytecode.verify");
+
+    /**
+     * The injectors by the internal name of their target class. Never
+     * mutated after being published.
+     */
+    private volatile Map<String, List<Injector>> injectors;
+
+    /**
+     * The cache of transformed classes, or null if there is none.
+     */
+    private volatile TransformCache cache;
+
+    /**
+     * Whether to patch classes at all. While this is false, the JVM is handed
+     * back every class unchanged, which lets retransformation undo patches.
+     */
+    private volatile boolean enabled = true;
+
+    /**
+     * Classes that are being or have been transformed ahead of time by
+     * {@link #preTransform(ClassLoader)}, until the JVM asks for them.
+     */
+    private final Map<String, Future<Prepared>> prepared = new ConcurrentHashMap<>();
+
+    /**
+     * The thread that transformed classes are verified on, if verification
+     * is enabled.
+     */
+    private final ExecutorService verifier = VERIFY ? Executors.newSingleThreadExecutor(r -> {
+        final Thread thread = new Thread(r, "Pipe Bytecode Verifier");
+        thread.setDaemon(true);
+        return thread;
+    }) : null;
+
+    public InjectorTransformer(final Injector... injectors) {
+        this(null, injectors);
+    }
+
+    public InjectorTransformer(final TransformCache cache, final Injector... injectors) {
+        this.cache = cache;
+        this.injectors = route(injectors);
+    }
+
+    private static Map<String, List<Injector>> route(final Injector... injectors) {
+        final Map<String, List<Injector>> routes = new HashMap<>();
+        for(final Injector injector : injectors) {
+            routes.computeIfAbsent(injector.getClassToInject().getObfuscatedName(), n -> new ArrayList<>(1))
+                    .add(injector);
+        }
+        routes.replaceAll((n, l) -> Collections.unmodifiableList(l));
+        return routes;
+    }
+
+    /**
+     * Replaces the injectors that classes are patched with. Classes that are
+     * already loaded keep their current patches until they are
+     * retransformed; see {@link InjectorReloader}. Anything still being
+     * {@link #preTransform(ClassLoader) pre-transformed} is thrown away.
+     *
+     * @param cache     The cache of transformed classes for the new
+     *                  injectors, or null for none
+     * @param injectors The new injectors
+     */
+    public void setInjectors(final TransformCache cache, final Injector... injectors) {
+        this.cache = cache;
+        this.injectors = route(injectors);
+        prepared.values().forEach(f -> f.cancel(false));
+        prepared.clear();
+    }
+
+    /**
+     * Sets whether classes are patched at all. Disabling the transformer and
+     * then retransforming its targets restores the game's own classes.
+     *
+     * @param enabled Whether to patch classes
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return Whether classes are patched at all
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The internal names of the classes that are injected into
+     */
+    public Set<String> getTargets() {
+        return Collections.unmodifiableSet(injectors.keySet());
+    }
+
+    /**
+     * Starts transforming every target class on a pool of worker threads,
+     * reading the classes from the given loader's resources, so that they
+     * are usually ready by the time the game gets around to loading them.
+     * The pool's threads exit once they are done. Does nothing if the
+     * <tt>pipe.bytecode.pretransform</tt> system property is set to
+     * <tt>false</tt>.
+     *
+     * @param classLoader The loader that will load the game classes
+     */
+    public void preTransform(final ClassLoader classLoader) {
+        final Map<String, List<Injector>> injectors = this.injectors;
+        if(!Boolean.parseBoolean(System.getProperty("pipe.bytecode.pretransform", "true")) || injectors.isEmpty()) {
+            return;
+        }
+        final int threads = Math.max(1, Math.min(injectors.size(), Runtime.getRuntime().availableProcessors()));
+        final AtomicInteger counter = new AtomicInteger();
+        final ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            final Thread thread = new Thread(r, "Pipe Pre-transform #" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Reading the class from the game JAR happens on the pool too, so premain only queues the work
+        injectors.forEach((className, targets) -> prepared.put(className, pool.submit(() -> {
+            final byte[] bytes;
+            try(final Span ignored = StartupTrace.begin("bytecode", "read " + className)) {
+                bytes = readClass(classLoader, className);
+            }
+            return bytes == null ? new Prepared(null, null) : new Prepared(bytes, inject(classLoader, className, bytes, targets));
+        })));
+        pool.shutdown();
+        Pipe.getLogger().info("Pre-transforming " + prepared.size() + " classes on " + threads + " threads");
+    }
+
+    private static byte[] readClass(final ClassLoader classLoader, final String className) {
+        try(final InputStream in = classLoader.getResourceAsStream(className + ".class")) {
+            if(in == null) {
+                Pipe.getLogger().warning("Couldn't find " + className + " to pre-transform; it will be transformed when loaded");
+                return null;
+            }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } catch(final IOException e) {
+            Pipe.getLogger().warning("Couldn't read " + className + " to pre-transform: " + e);
+            return null;
+        }
+    }
+
+    @Override
+    public byte[] transform(final ClassLoader classLoader, final String className, final Class<?> classBeingRedefined,
+                            final ProtectionDomain protectionDomain, final byte[] bytes) {
+        final List<Injector> targets = enabled ? injectors.get(className) : null;
+        if(targets == null) {
+            return null;
+        }
+        final Future<Prepared> future = prepared.remove(className);
+        if(future != null) {
+            try {
+                final Prepared result = future.get();
+                // Only usable if the JVM is loading the very class we read
+                if(result.input != null && Arrays.equals(result.input, bytes)) {
+                    return result.output;
+                }
+            } catch(final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch(final ExecutionException e) {
+                Pipe.getLogger().warning("Pre-transforming " + className + " failed: " + e.getCause());
+            }
+        }
+        return inject(classLoader, className, bytes, targets);
+    }
+
+    /**
+     * Transforms a class, or loads it from the cache.
+     *
+     * @return The transformed class, or null if transforming it failed
+     */
+    private byte[] inject(final ClassLoader classLoader, final String className, final byte[] bytes,
+                          final List<Injector> targets) {
+        try(final Span span = StartupTrace.begin("bytecode", "transform " + className).arg("bytes in", bytes.length)) {
+            final TransformCache cache = this.cache;
+            final String key = cache == null ? null : cache.key(className, bytes);
+            if(key != null) {
+                final byte[] cached = cache.load(className, key);
+                if(cached != null) {
+                    span.arg("bytes out", cached.length).arg("cached", true);
+                    return cached;
+                }
+            }
+            try {
+                final ClassReader cr = new ClassReader(bytes);
+                final ClassNode cn = new ClassNode();
+                final TargetCollector collector = new TargetCollector(cn, targets);
+                cr.accept(collector, 0);
+                final InsnIndex index = new InsnIndex(cn);
+                for(final Injector injector : targets) {
+                    Pipe.getLogger().info("Injecting mapped class [" + injector.getClassToInject().getDeobfuscatedName() + ','
+                            + className + "] with " + injector.getClass().getSimpleName() + "...");
+                    try(final Span ignored = StartupTrace.begin("bytecode", "inject " + injector.getClass().getSimpleName())) {
+                        injector.inject(cr, cn, index);
+                    }
+                }
+                final ClassWriter cw = new ClassWriter(cr, ClassWriter.COMPUTE_MAXS);
+                cr.accept(new TargetReplacer(cw, cn, collector), 0);
+                Pipe.getLogger().info("Done!");
+                final byte[] cwBytes = cw.toByteArray();
+                span.arg("bytes out", cwBytes.length);
+                if(key != null) {
+                    cache.store(className, key, cwBytes);
+                }
+                if(verifier != null) {
+                    verifier.execute(() -> verify(className, classLoader, cwBytes));
+                }
+                return cwBytes;
+            } catch(final RuntimeException e) {
+                // The JVM would swallow this and load the class unchanged anyway
+                Pipe.getLogger().severe("Injecting " + className + " failed!");
+                e.printStackTrace();
+                span.arg("failed", e.toString());
+                return null;
+            }
+        }
+    }
+
+    private static void verify(final String className, final ClassLoader classLoader, final byte[] bytes) {
+        final StringWriter out = new StringWriter();
+        CheckClassAdapter.verify(new ClassReader(bytes), classLoader, false, new PrintWriter(out));
+        if(out.getBuffer().length() > 0) {
+            Pipe.getLogger().warning("Transformed class " + className + " failed verification:\n" + out);
+        }
+    }
+
+    /**
+     * @return The number of distinct classes that are injected into
+     */
+    public int getTargetCount() {
+        return injectors.size();
+    }
+
+    private static String key(final String name, final String desc) {
+        return name + desc;
+    }
+
+    /**
+     * A class transformed ahead of time, along with the bytes it was
+     * transformed from. Both are null if the class couldn't be read.
+     */
+    private static final class Prepared {
+        private final byte[] input;
+        private final byte[] output;
+
+        private Prepared(final byte[] input, final byte[] output) {
+            this.input = input;
+            this.output = output;
+        }
+    }
+
+    /**
+     * Reads the class header and the claimed methods and fields into a
+     * {@link ClassNode}. Returning null for every other member makes the
+     * reader skip it entirely.
+     */
+    private static final class TargetCollector extends ClassVisitor {
+        private final List<Injector> injectors;
+        private final Set<String> fields = new HashSet<>();
+        private final Set<String> methods = new HashSet<>();
+
+        private TargetCollector(final ClassNode cn, final List<Injector> injectors) {
+            super(Opcodes.ASM5, cn);
+            this.injectors = injectors;
+        }
+
+        @Override
+        public FieldVisitor visitField(final int access, final String name, final String desc, final String signature,
+                                       final Object value) {
+            for(final Injector injector : injectors) {
+                if(injector.isTargetField(name, desc)) {
+                    fields.add(key(name, desc));
+                    return super.visitField(access, name, desc, signature, value);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(final int access, final String name, final String desc, final String signature,
+                                         final String[] exceptions) {
+            for(final Injector injector : injectors) {
+                if(injector.isTargetMethod(name, desc)) {
+                    methods.add(key(name, desc));
+                    return super.visitMethod(access, name, desc, signature, exceptions);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Copies the class into a {@link ClassWriter}, swapping in the patched
+     * members from the {@link ClassNode} the injectors worked on. Claimed
+     * members that an injector removed from the node are dropped, and
+     * members it added are appended at the end.
+     */
+    private static final class TargetReplacer extends ClassVisitor {
+        private final ClassNode cn;
+        private final TargetCollector claimed;
+        private final Map<String, FieldNode> fields = new LinkedHashMap<>();
+        private final Map<String, MethodNode> methods = new LinkedHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        private TargetReplacer(final ClassVisitor cv, final ClassNode cn, final TargetCollector claimed) {
+            super(Opcodes.ASM5, cv);
+            this.cn = cn;
+            this.claimed = claimed;
+            for(final FieldNode field : (List<FieldNode>) cn.fields) {
+                fields.put(key(field.name, field.desc), field);
+            }
+            for(final MethodNode method : (List<MethodNode>) cn.methods) {
+                methods.put(key(method.name, method.desc), method);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void visit(final int version, final int access, final String name, final String signature,
+                          final String superName, final String[] interfaces) {
+            // Injectors may have changed the header, e.g. to make the class public
+            super.visit(cn.version, cn.access, cn.name, cn.signature, cn.superName,
+                    ((List<String>) cn.interfaces).toArray(new String[cn.interfaces.size()]));
+        }
+
+        @Override
+        public FieldVisitor visitField(final int access, final String name, final String desc, final String signature,
+                                       final Object value) {
+            final String key = key(name, desc);
+            if(!claimed.fields.contains(key)) {
+                return super.visitField(access, name, desc, signature, value);
+            }
+            final FieldNode field = fields.remove(key);
+            if(field != null) {
+                field.accept(cv);
+            }
+            return null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(final int access, final String name, final String desc, final String signature,
+                                         final String[] exceptions) {
+            final String key = key(name, desc);
+            if(!claimed.methods.contains(key)) {
+                return super.visitMethod(access, name, desc, signature, exceptions);
+            }
+            final MethodNode method = methods.remove(key);
+            if(method != null) {
+                method.accept(cv);
+            }
+            return null;
+        }
+
+        @Override
+        public void visitEnd() {
+            fields.values().forEach(f -> f.accept(cv));
+            methods.values().forEach(m -> m.accept(cv));
+            super.visitEnd();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package lgbt.audrey.pipe.bytecode;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the instructions that injectors anchor their patches to: LDC
+ * constants, method invocations, field accesses and returns. One index is
+ * built per transformed class and shared by all of the class's injectors,
+ * and each method is only scanned once, the first time any of them asks
+ * about it, instead of once per lookup.
+ * <p>
+ * Lookups return an {@link Anchor}, which can then be moved a fixed number
+ * of instructions forwards or backwards to reach the actual injection
+ * point. The index holds on to the instructions themselves rather than
+ * their positions, so anchors stay valid while earlier patches insert code
+ * around them. Instructions added by injectors are not indexed.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class InsnIndex implements Opcodes {
+    private final ClassNode cn;
+    private final Map<MethodNode, MethodIndex> methods = new IdentityHashMap<>();
+
+    public InsnIndex(final ClassNode cn) {
+        this.cn = cn;
+    }
+
+    /**
+     * @param method The method to search, which must belong to the indexed
+     *               class
+     * @return Every LDC instruction in the method, in order
+     */
+    public List<LdcInsnNode> constants(final MethodNode method) {
+        return Collections.unmodifiableList(index(method).ldcs);
+    }
+
+    /**
+     * Finds the first LDC instruction loading the given constant.
+     *
+     * @param method The method to search
+     * @param cst    The constant, e.g. a string
+     * @return The first instruction loading the constant
+     * @throws IllegalStateException if the method never loads the constant
+     */
+    public Anchor ldc(final MethodNode method, final Object cst) {
+        return first(method, index(method).constants.get(cst), "LDC " + cst);
+    }
+
+    /**
+     * Finds the last LDC instruction loading the given constant.
+     *
+     * @param method The method to search
+     * @param cst    The constant, e.g. a string
+     * @return The last instruction loading the constant
+     * @throws IllegalStateException if the method never loads the constant
+     */
+    public Anchor lastLdc(final MethodNode method, final Object cst) {
+        return last(method, index(method).constants.get(cst), "LDC " + cst);
+    }
+
+    /**
+     * Finds the first invocation of the given method.
+     *
+     * @param method The method to search
+     * @param owner  The internal name of the invoked method's owner, or null
+     *               to match any owner
+     * @param name   The name of the invoked method
+     * @param desc   The descriptor of the invoked method, or null to match
+     *               any descriptor
+     * @return The first invocation of the method
+     * @throws IllegalStateException if the method is never invoked
+     */
+    public Anchor invocation(final MethodNode method, final String owner, final String name, final String desc) {
+        final List<AbstractInsnNode> matches = new ArrayList<>();
+        for(final MethodInsnNode insn : index(method).invocations.getOrDefault(name, Collections.emptyList())) {
+            if((owner == null || owner.equals(insn.owner)) && (desc == null || desc.equals(insn.desc))) {
+                matches.add(insn);
+            }
+        }
+        return first(method, matches, "invocation of " + (owner == null ? "*" : owner) + '.' + name
+                + (desc == null ? "" : desc));
+    }
+
+    /**
+     * Finds the first access to the given field.
+     *
+     * @param method The method to search
+     * @param owner  The internal name of the field's owner, or null to match
+     *               any owner
+     * @param name   The name of the field
+     * @return The first access to the field
+     * @throws IllegalStateException if the field is never accessed
+     */
+    public Anchor fieldAccess(final MethodNode method, final String owner, final String name) {
+        final List<AbstractInsnNode> matches = new ArrayList<>();
+        for(final FieldInsnNode insn : index(method).fields.getOrDefault(name, Collections.emptyList())) {
+            if(owner == null || owner.equals(insn.owner)) {
+                matches.add(insn);
+            }
+        }
+        return first(method, matches, "access to " + (owner == null ? "*" : owner) + '.' + name);
+    }
+
+    /**
+     * Finds the first return instruction, of any kind.
+     *
+     * @param method The method to search
+     * @return The first return instruction
+     * @throws IllegalStateException if the method never returns
+     */
+    public Anchor firstReturn(final MethodNode method) {
+        return first(method, index(method).returns, "return");
+    }
+
+    private MethodIndex index(final MethodNode method) {
+        if(!cn.methods.contains(method)) {
+            throw new IllegalArgumentException(method.name + method.desc + " isn't a method of " + cn.name);
+        }
+        return methods.computeIfAbsent(method, MethodIndex::new);
+    }
+
+    private Anchor first(final MethodNode method, final List<? extends AbstractInsnNode> matches, final String what) {
+        if(matches == null || matches.isEmpty()) {
+            throw notFound(method, what);
+        }
+        return new Anchor(matches.get(0));
+    }
+
+    private Anchor last(final MethodNode method, final List<? extends AbstractInsnNode> matches, final String what) {
+        if(matches == null || matches.isEmpty()) {
+            throw notFound(method, what);
+        }
+        return new Anchor(matches.get(matches.size() - 1));
+    }
+
+    private IllegalStateException notFound(final MethodNode method, final String what) {
+        return new IllegalStateException("No " + what + " in " + cn.name + '.' + method.name + method.desc);
+    }
+
+    /**
+     * An instruction found through the index. Moving an anchor walks the
+     * method's instruction list, so labels, line numbers and frames count
+     * as instructions too.
+     */
+    public static final class Anchor {
+        private final AbstractInsnNode insn;
+
+        private Anchor(final AbstractInsnNode insn) {
+            this.insn = insn;
+        }
+
+        /**
+         * @param hops The number of instructions to move forwards
+         * @return The anchor that many instructions after this one
+         * @throws IllegalStateException if that runs off the end of the
+         *                               method
+         */
+        public Anchor next(final int hops) {
+            AbstractInsnNode node = insn;
+            for(int i = 0; i < hops; i++) {
+                node = node.getNext();
+                if(node == null) {
+                    throw new IllegalStateException("Ran off the end of the method " + hops + " instructions after " + describe());
+                }
+            }
+            return new Anchor(node);
+        }
+
+        /**
+         * @param hops The number of instructions to move backwards
+         * @return The anchor that many instructions before this one
+         * @throws IllegalStateException if that runs off the start of the
+         *                               method
+         */
+        public Anchor previous(final int hops) {
+            AbstractInsnNode node = insn;
+            for(int i = 0; i < hops; i++) {
+                node = node.getPrevious();
+                if(node == null) {
+                    throw new IllegalStateException("Ran off the start of the method " + hops + " instructions before " + describe());
+                }
+            }
+            return new Anchor(node);
+        }
+
+        /**
+         * @return The anchored instruction
+         */
+        public AbstractInsnNode get() {
+            return insn;
+        }
+
+        /**
+         * @param type The kind of instruction expected
+         * @return The anchored instruction
+         * @throws IllegalStateException if the instruction isn't of the
+         *                               expected kind
+         */
+        public <T extends AbstractInsnNode> T get(final Class<T> type) {
+            if(!type.isInstance(insn)) {
+                throw new IllegalStateException("Expected a " + type.getSimpleName() + ", found " + describe());
+            }
+            return type.cast(insn);
+        }
+
+        private String describe() {
+            return insn.getClass().getSimpleName() + " (opcode " + insn.getOpcode() + ')';
+        }
+    }
+
+    /**
+     * The anchors of a single method, collected in one pass over its
+     * instructions.
+     */
+    private static final class MethodIndex {
+        private final List<LdcInsnNode> ldcs = new ArrayList<>();
+        private final Map<Object, List<LdcInsnNode>> constants = new HashMap<>();
+        private final Map<String, List<MethodInsnNode>> invocations = new HashMap<>();
+        private final Map<String, List<FieldInsnNode>> fields = new HashMap<>();
+        private final List<AbstractInsnNode> returns = new ArrayList<>();
+
+        private MethodIndex(final MethodNode method) {
+            for(AbstractInsnNode insn = method.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+                switch(insn.getType()) {
+                    case AbstractInsnNode.LDC_INSN:
+                        final LdcInsnNode ldc = (LdcInsnNode) insn;
+                        ldcs.add(ldc);
+                        constants.computeIfAbsent(ldc.cst, c -> new ArrayList<>(1)).add(ldc);
+                        break;
+                    case AbstractInsnNode.METHOD_INSN:
+                        final MethodInsnNode invocation = (MethodInsnNode) insn;
+                        invocations.computeIfAbsent(invocation.name, n -> new ArrayList<>(1)).add(invocation);
+                        break;
+                    case AbstractInsnNode.FIELD_INSN:
+                        final FieldInsnNode field = (FieldInsnNode) insn;
+                        fields.computeIfAbsent(field.name, n -> new ArrayList<>(1)).add(field);
+                        break;
+                    default:
+                        if(insn.getOpcode() >= IRETURN && insn.getOpcode() <= RETURN) {
+                            returns.add(insn);
+                        }
+                }
+            }
+        }
+    }
+}
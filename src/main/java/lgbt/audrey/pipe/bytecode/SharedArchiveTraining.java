@@ -0,0 +1,113 @@
+package lgbt.audrey.pipe.bytecode;
+
+import lgbt.audrey.pipe.Agent;
+import lgbt.audrey.pipe.Pipe;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.instrument.Instrumentation;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The training run for a class-data-sharing (CDS) archive of Pipe, its
+ * libraries, its plugins and the game. Client JVMs started from the same
+ * archive map its pre-parsed, pre-verified classes instead of each loading
+ * them on their own, which shortens startup and lets the JVMs on a host
+ * share that part of their metaspace.
+ * <p>
+ * Training is enabled with the <tt>pipe.cds.train</tt> system property.
+ * Once Pipe has finished starting up, the classes that the boot, platform
+ * and application class loaders have loaded so far are written to
+ * <tt>cds/pipe.classlist</tt> in the Pipe data directory, ready for a
+ * static dump with <tt>-Xshare:dump</tt>. The JVM is then shut down, so that
+ * a dynamic archive requested with <tt>-XX:ArchiveClassesAtExit</tt> holds
+ * exactly the classes of a normal start, including plugin classes.
+ * <p>
+ * Game classes patched by injectors are left out of the class list, as are
+ * generated classes. The JVM refuses to archive classes that a
+ * transformer changed, and loading the unpatched version from an archive
+ * would only have it thrown away again; the {@link TransformCache} covers
+ * those classes instead.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class SharedArchiveTraining {
+    private static final boolean ENABLED = Boolean.getBoolean("pipe.cds.train");
+
+    private SharedArchiveTraining() {
+    }
+
+    /**
+     * @return Whether this is a training run
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Finishes the training run: writes the class list and exits the JVM.
+     * Does nothing unless this is a training run.
+     *
+     * @param dataDir   The Pipe data directory
+     * @param generated The binary names of the classes Pipe generated
+     */
+    public static void finish(final File dataDir, final Collection<String> generated) {
+        if(!ENABLED) {
+            return;
+        }
+        final Instrumentation instrumentation = Agent.getInstrumentation();
+        if(instrumentation == null) {
+            Pipe.getLogger().warning("CDS training needs Pipe to be started as an agent; not writing a class list");
+            return;
+        }
+        final Set<String> excluded = new HashSet<>();
+        if(Agent.getReloader() != null) {
+            excluded.addAll(Agent.getReloader().getTransformer().getTargets());
+        }
+        generated.forEach(name -> excluded.add(name.replace('.', '/')));
+
+        final ClassLoader app = ClassLoader.getSystemClassLoader();
+        final ClassLoader platform = app.getParent();
+        final Set<String> classes = new TreeSet<>();
+        for(final Class<?> clazz : instrumentation.getAllLoadedClasses()) {
+            final ClassLoader loader = clazz.getClassLoader();
+            if(clazz.isArray() || clazz.isPrimitive() || loader != null && loader != app && loader != platform) {
+                continue;
+            }
+            final String name = clazz.getName().replace('.', '/');
+            // Lambdas and other classes without a class file can't be listed
+            if(name.contains("$$Lambda") || name.contains("/0x") || excluded.contains(name)) {
+                continue;
+            }
+            classes.add(name);
+        }
+
+        final File directory = new File(dataDir, "cds");
+        final File classList = new File(directory, "pipe.classlist");
+        final File archive = new File(directory, "pipe.jsa");
+        try {
+            Files.createDirectories(directory.toPath());
+            try(final PrintWriter out = new PrintWriter(Files.newBufferedWriter(classList.toPath(), StandardCharsets.UTF_8))) {
+                classes.forEach(out::println);
+            }
+        } catch(final IOException e) {
+            Pipe.getLogger().severe("Couldn't write CDS class list: " + e);
+            return;
+        }
+        Pipe.getLogger().info("Wrote " + classes.size() + " classes (" + excluded.size() + " patched or generated left out) to "
+                + classList.getAbsolutePath());
+        Pipe.getLogger().info("Create a static archive (JDK 10+) with: java -Xshare:dump -XX:SharedClassListFile="
+                + classList.getAbsolutePath() + " -XX:SharedArchiveFile=" + archive.getAbsolutePath()
+                + " -cp " + System.getProperty("java.class.path"));
+        Pipe.getLogger().info("Then launch with: -XX:SharedArchiveFile=" + archive.getAbsolutePath() + " -Xshare:auto");
+        Pipe.getLogger().info("CDS training finished; exiting so that -XX:ArchiveClassesAtExit can write its archive");
+        System.exit(0);
+    }
+}
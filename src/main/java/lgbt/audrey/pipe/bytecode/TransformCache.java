@@ -0,0 +1,296 @@
+package lgbt.audrey.pipe.bytecode;
+
+import lgbt.audrey.pipe.Pipe;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.CodeSource;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An on-disk cache of transformed game classes, so that classes only go
+ * through ASM on the first launch after something changed.
+ * <p>
+ * Every entry is keyed by a SHA-256 hash of the untransformed class, the
+ * mapping file, and the Pipe JAR (and the ASM JAR, if ASM isn't shaded into
+ * it). When Pipe isn't running from a JAR, such as from an IDE, the
+ * bytecode of the transformer, the injectors, and their nested classes is
+ * hashed instead, along with ASM's. A different game jar, different
+ * mappings, or a new build of Pipe all produce different keys, so stale
+ * entries are never used; they are deleted when their class is next
+ * stored.
+ * <p>
+ * The classes built by {@link Generator}s are cached as well, keyed by the
+ * same hash and the bytecode of the generator, so that warm starts don't
+ * rebuild them from the mappings either.
+ * <p>
+ * The cache lives in the directory given by the <tt>pipe.bytecode.cache</tt>
+ * system property, which defaults to <tt>pipe/cache/classes</tt> in the
+ * game directory. Setting it to <tt>off</tt> disables the cache.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class TransformCache {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path directory;
+
+    /**
+     * Hash of everything that influences the output other than the class
+     * itself.
+     */
+    private final byte[] fingerprint;
+
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    TransformCache(final Path directory, final byte[] fingerprint) {
+        this.directory = directory;
+        this.fingerprint = fingerprint.clone();
+    }
+
+    /**
+     * Creates the cache configured by the <tt>pipe.bytecode.cache</tt>
+     * system property.
+     *
+     * @param mappings  The mapping file the injectors were created from
+     * @param injectors The injectors whose output is cached
+     * @return The cache, or null if it is disabled or can't be used
+     */
+    public static TransformCache fromProperties(final File mappings, final Injector... injectors) {
+        final String property = System.getProperty("pipe.bytecode.cache",
+                "pipe" + File.separator + "cache" + File.separator + "classes");
+        if(property.equalsIgnoreCase("off")) {
+            return null;
+        }
+        try {
+            final Path directory = new File(property).toPath();
+            Files.createDirectories(directory);
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Files.readAllBytes(mappings.toPath()));
+            final Path pipe = jarOf(TransformCache.class);
+            final Path asm = jarOf(ClassReader.class);
+            final Set<Class<?>> classes = new LinkedHashSet<>();
+            if(pipe != null) {
+                hashFile(digest, pipe);
+            } else {
+                addWithNested(classes, InjectorTransformer.class);
+                addWithNested(classes, InsnIndex.class);
+                Arrays.stream(injectors).map(Object::getClass).sorted(Comparator.comparing(Class::getName))
+                        .forEach(c -> {
+                            for(Class<?> k = c; k != null && k != Object.class; k = k.getSuperclass()) {
+                                addWithNested(classes, k);
+                            }
+                        });
+            }
+            if(asm != null) {
+                if(!asm.equals(pipe)) {
+                    hashFile(digest, asm);
+                }
+            } else {
+                classes.add(ClassReader.class);
+                classes.add(ClassWriter.class);
+            }
+            for(final Class<?> clazz : classes) {
+                digest.update(clazz.getName().getBytes("UTF-8"));
+                digest.update(readClass(clazz));
+            }
+            Pipe.getLogger().info("Caching transformed classes in " + directory.toAbsolutePath());
+            return new TransformCache(directory, digest.digest());
+        } catch(final IOException | NoSuchAlgorithmException e) {
+            Pipe.getLogger().warning("Transformed class cache disabled: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the JAR the given class was loaded from, or null if it wasn't
+     * loaded from a JAR file.
+     */
+    private static Path jarOf(final Class<?> clazz) {
+        final CodeSource source = clazz.getProtectionDomain().getCodeSource();
+        if(source == null || source.getLocation() == null) {
+            return null;
+        }
+        try {
+            final Path path = Paths.get(source.getLocation().toURI());
+            return Files.isRegularFile(path) ? path : null;
+        } catch(final URISyntaxException | IllegalArgumentException | FileSystemNotFoundException | SecurityException e) {
+            return null;
+        }
+    }
+
+    private static void hashFile(final MessageDigest digest, final Path file) throws IOException {
+        try(final InputStream in = Files.newInputStream(file)) {
+            final byte[] buffer = new byte[65536];
+            int read;
+            while((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+
+    private static void addWithNested(final Set<Class<?>> classes, final Class<?> clazz) {
+        if(classes.add(clazz)) {
+            Arrays.stream(clazz.getDeclaredClasses()).sorted(Comparator.comparing(Class::getName))
+                    .forEach(c -> addWithNested(classes, c));
+        }
+    }
+
+    private static byte[] readClass(final Class<?> clazz) throws IOException {
+        final String resource = '/' + clazz.getName().replace('.', '/') + ".class";
+        try(final InputStream in = clazz.getResourceAsStream(resource)) {
+            if(in == null) {
+                throw new IOException("Can't read " + resource);
+            }
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while((read = in.read(buffer)) > 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Returns the key that the transformed version of the given class is
+     * stored under.
+     *
+     * @param className The internal name of the class
+     * @param bytes     The untransformed class
+     * @return The key
+     */
+    String key(final String className, final byte[] bytes) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(fingerprint);
+            digest.update(className.getBytes("UTF-8"));
+            digest.update(bytes);
+            final byte[] hash = digest.digest();
+            final char[] hex = new char[hash.length * 2];
+            for(int i = 0; i < hash.length; i++) {
+                hex[i * 2] = HEX[hash[i] >> 4 & 0xF];
+                hex[i * 2 + 1] = HEX[hash[i] & 0xF];
+            }
+            return new String(hex);
+        } catch(final NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Loads a cached class.
+     *
+     * @param className The internal name of the class
+     * @param key       The key from {@link #key(String, byte[])}
+     * @return The transformed class, or null if it isn't cached
+     */
+    byte[] load(final String className, final String key) {
+        final Path file = file(className, key);
+        try {
+            if(Files.isRegularFile(file)) {
+                final byte[] bytes = Files.readAllBytes(file);
+                Pipe.getLogger().info("Transformed class cache hit for " + className + " (" + hits.incrementAndGet()
+                        + " hits, " + misses.get() + " misses)");
+                return bytes;
+            }
+        } catch(final IOException e) {
+            Pipe.getLogger().warning("Couldn't read cached class " + file + ": " + e);
+        }
+        Pipe.getLogger().info("Transformed class cache miss for " + className + " (" + hits.get() + " hits, "
+                + misses.incrementAndGet() + " misses)");
+        return null;
+    }
+
+    /**
+     * Stores a transformed class, replacing any entries for the same class
+     * under other keys.
+     *
+     * @param className The internal name of the class
+     * @param key       The key from {@link #key(String, byte[])}
+     * @param bytes     The transformed class
+     */
+    void store(final String className, final String key, final byte[] bytes) {
+        final Path file = file(className, key);
+        try {
+            final Path temp = Files.createTempFile(directory, prefix(className), ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            try(final DirectoryStream<Path> stale = Files.newDirectoryStream(directory, prefix(className) + "*.class")) {
+                for(final Path old : stale) {
+                    if(!old.equals(file)) {
+                        Files.deleteIfExists(old);
+                    }
+                }
+            }
+        } catch(final IOException e) {
+            Pipe.getLogger().warning("Couldn't cache transformed class " + className + ": " + e);
+        }
+    }
+
+    /**
+     * Returns the class built by a generator, generating and storing it only
+     * if it isn't cached yet.
+     *
+     * @param generator The generator
+     * @return The generated class
+     */
+    public byte[] generate(final Generator generator) {
+        final String className = generator.getClassName().replace('.', '/');
+        final String key;
+        try {
+            key = key(className, readClass(generator.getClass()));
+        } catch(final IOException e) {
+            Pipe.getLogger().warning("Couldn't cache generated class " + className + ": " + e);
+            return generator.generate();
+        }
+        final byte[] cached = load(className, key);
+        if(cached != null) {
+            return cached;
+        }
+        final byte[] bytes = generator.generate();
+        store(className, key, bytes);
+        return bytes;
+    }
+
+    /**
+     * @return The number of classes that were loaded from the cache
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of classes that had to be transformed
+     */
+    public int getMisses() {
+        return misses.get();
+    }
+
+    private Path file(final String className, final String key) {
+        return directory.resolve(prefix(className) + key + ".class");
+    }
+
+    private static String prefix(final String className) {
+        return className.replace('/', '.') + '-';
+    }
+}
@@ -0,0 +1,261 @@
+package lgbt.audrey.pipe.bytecode.map;
+
+import lgbt.audrey.pipe.bytecode.map.MappedClass.MethodDef;
+import lombok.Getter;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fast access to game fields and methods by their deobfuscated names, for
+ * plugins.
+ * <p>
+ * An accessor is resolved through the {@link ClassMap} once, and then reads,
+ * writes or calls its member through a {@link MethodHandle}, with no
+ * reflection, name lookups or access checks left per call. Keep accessors
+ * in <tt>static final</tt> fields, where the JIT can inline through them:
+ * <pre>
+ * private static final Accessors.FieldAccessor&lt;String&gt; CHAT_MESSAGE =
+ *         Accessors.field("PacketClientChatMessage", "chatMessage");
+ * ...
+ * if(CHAT_MESSAGE.getOwner().isInstance(packet)) {
+ *     final String message = CHAT_MESSAGE.get(packet);
+ * </pre>
+ * Accessors are cached per game class in a {@link ClassValue}, keyed by the
+ * obfuscated member, so asking for the same member twice returns the same
+ * accessor, and the cache goes away with the class.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class Accessors {
+    private static final ClassValue<Map<String, Object>> cache = new ClassValue<Map<String, Object>>() {
+        @Override
+        protected Map<String, Object> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private Accessors() {
+    }
+
+    /**
+     * @param className The deobfuscated name of the class that declares the
+     *                  field
+     * @param fieldName The deobfuscated name of the field
+     * @param <T>       The type of the field
+     * @return An accessor for the field
+     * @throws IllegalArgumentException if the class or field isn't in the
+     *                                  mappings
+     * @throws IllegalStateException    if the class or field doesn't exist
+     */
+    public static <T> FieldAccessor<T> field(final String className, final String fieldName) {
+        final MappedClass mappedClass = ClassMap.getClassByName(className);
+        final String obfuscatedName = mappedClass.getField(fieldName);
+        if(obfuscatedName == null) {
+            throw new IllegalArgumentException("No field '" + fieldName + "' in the mappings of " + className);
+        }
+        final Class<?> owner = load(mappedClass);
+        @SuppressWarnings("unchecked")
+        final FieldAccessor<T> accessor = (FieldAccessor<T>) cache.get(owner).computeIfAbsent(obfuscatedName,
+                k -> new FieldAccessor<>(owner, obfuscatedName, className + '.' + fieldName));
+        return accessor;
+    }
+
+    /**
+     * Finds a method by its deobfuscated name. If it is overloaded, the first
+     * overload in the mappings is used; see
+     * {@link #method(String, String, String)}.
+     *
+     * @param className  The deobfuscated name of the class that declares the
+     *                   method
+     * @param methodName The deobfuscated name of the method
+     * @return An accessor for the method
+     * @throws IllegalArgumentException if the class or method isn't in the
+     *                                  mappings
+     * @throws IllegalStateException    if the class or method doesn't exist
+     */
+    public static MethodAccessor method(final String className, final String methodName) {
+        final MappedClass mappedClass = ClassMap.getClassByName(className);
+        return method(mappedClass, mappedClass.getMethod(methodName).orElseThrow(() ->
+                new IllegalArgumentException("No method '" + methodName + "' in the mappings of " + className)));
+    }
+
+    /**
+     * @param className  The deobfuscated name of the class that declares the
+     *                   method
+     * @param methodName The deobfuscated name of the method
+     * @param desc       The obfuscated descriptor of the method
+     * @return An accessor for the method
+     * @throws IllegalArgumentException if the class or method isn't in the
+     *                                  mappings
+     * @throws IllegalStateException    if the class or method doesn't exist
+     */
+    public static MethodAccessor method(final String className, final String methodName, final String desc) {
+        final MappedClass mappedClass = ClassMap.getClassByName(className);
+        return method(mappedClass, mappedClass.getMethod(methodName, desc).orElseThrow(() ->
+                new IllegalArgumentException("No method '" + methodName + desc + "' in the mappings of " + className)));
+    }
+
+    private static MethodAccessor method(final MappedClass mappedClass, final MethodDef method) {
+        final Class<?> owner = load(mappedClass);
+        return (MethodAccessor) cache.get(owner).computeIfAbsent(method.getName() + method.getDesc(),
+                k -> new MethodAccessor(owner, method));
+    }
+
+    private static Class<?> load(final MappedClass mappedClass) {
+        try {
+            return Class.forName(mappedClass.getObfuscatedName().replace('/', '.'), false, Accessors.class.getClassLoader());
+        } catch(final ClassNotFoundException e) {
+            throw new IllegalStateException("Couldn't load " + mappedClass.getDeobfuscatedName(), e);
+        }
+    }
+
+    /**
+     * Reads and writes a field. Static fields ignore the target object.
+     *
+     * @param <T> The type of the field
+     */
+    public static final class FieldAccessor<T> {
+        /**
+         * The class that declares the field.
+         */
+        @Getter
+        private final Class<?> owner;
+        private final String name;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private FieldAccessor(final Class<?> owner, final String obfuscatedName, final String name) {
+            this.owner = owner;
+            this.name = name;
+            try {
+                final Field field = owner.getDeclaredField(obfuscatedName);
+                field.setAccessible(true);
+                final MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle getter = lookup.unreflectGetter(field);
+                // A final field has no setter; set() then fails
+                MethodHandle setter = Modifier.isFinal(field.getModifiers()) ? null : lookup.unreflectSetter(field);
+                if(Modifier.isStatic(field.getModifiers())) {
+                    getter = MethodHandles.dropArguments(getter, 0, Object.class);
+                    setter = setter == null ? null : MethodHandles.dropArguments(setter, 0, Object.class);
+                }
+                this.getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+                this.setter = setter == null ? null : setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } catch(final NoSuchFieldException | IllegalAccessException | RuntimeException e) {
+                throw new IllegalStateException("Couldn't access " + name + " (" + owner.getName() + '.' + obfuscatedName + ')', e);
+            }
+        }
+
+        /**
+         * @param target The object to read the field of, or null for a static
+         *               field
+         * @return The value of the field
+         */
+        @SuppressWarnings("unchecked")
+        public T get(final Object target) {
+            try {
+                return (T) (Object) getter.invokeExact(target);
+            } catch(final RuntimeException | Error e) {
+                throw e;
+            } catch(final Throwable t) {
+                throw new IllegalStateException("Couldn't read " + name, t);
+            }
+        }
+
+        /**
+         * @param target The object to write the field of, or null for a static
+         *               field
+         * @param value  The new value of the field
+         * @throws IllegalStateException if the field is final
+         */
+        public void set(final Object target, final T value) {
+            if(setter == null) {
+                throw new IllegalStateException(name + " is final");
+            }
+            try {
+                setter.invokeExact(target, (Object) value);
+            } catch(final RuntimeException | Error e) {
+                throw e;
+            } catch(final Throwable t) {
+                throw new IllegalStateException("Couldn't write " + name, t);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "FieldAccessor(" + name + ')';
+        }
+    }
+
+    /**
+     * Calls a method. Static methods ignore the target object.
+     */
+    public static final class MethodAccessor {
+        /**
+         * The class that declares the method.
+         */
+        @Getter
+        private final Class<?> owner;
+        private final MethodDef method;
+        private final MethodHandle invoker;
+
+        private MethodAccessor(final Class<?> owner, final MethodDef method) {
+            this.owner = owner;
+            this.method = method;
+            try {
+                Method target = null;
+                for(final Method m : owner.getDeclaredMethods()) {
+                    if(m.getName().equals(method.getName()) && Type.getMethodDescriptor(m).equals(method.getDesc())) {
+                        target = m;
+                        break;
+                    }
+                }
+                if(target == null) {
+                    throw new NoSuchMethodException(method.getName() + method.getDesc());
+                }
+                target.setAccessible(true);
+                MethodHandle invoker = MethodHandles.lookup().unreflect(target);
+                if(Modifier.isStatic(target.getModifiers())) {
+                    invoker = MethodHandles.dropArguments(invoker, 0, Object.class);
+                }
+                final int parameters = target.getParameterCount();
+                this.invoker = invoker.asType(invoker.type().changeReturnType(Object.class).changeParameterType(0, Object.class))
+                        .asSpreader(Object[].class, parameters)
+                        .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+            } catch(final NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+                throw new IllegalStateException("Couldn't access " + method + " in " + owner.getName(), e);
+            }
+        }
+
+        /**
+         * @param target    The object to call the method on, or null for a
+         *                  static method
+         * @param arguments The arguments to the method
+         * @param <T>       The return type of the method
+         * @return What the method returned, or null for a void method
+         */
+        @SuppressWarnings("unchecked")
+        public <T> T invoke(final Object target, final Object... arguments) {
+            try {
+                return (T) (Object) invoker.invokeExact(target, arguments);
+            } catch(final RuntimeException | Error e) {
+                throw e;
+            } catch(final Throwable t) {
+                throw new IllegalStateException("Couldn't call " + method, t);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "MethodAccessor(" + method + ')';
+        }
+    }
+}
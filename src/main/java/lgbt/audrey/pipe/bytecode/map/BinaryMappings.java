@@ -0,0 +1,159 @@
+package lgbt.audrey.pipe.bytecode.map;
+
+import lgbt.audrey.pipe.bytecode.map.MappedClass.Members;
+import lgbt.audrey.pipe.bytecode.map.MappedClass.MethodDef;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads mappings compiled by {@link MappingCompiler}.
+ * <p>
+ * The file is memory-mapped rather than read, and decoded lazily: loading
+ * only decodes the names of the classes, and a class's fields and methods
+ * are decoded the first time it is looked into. Strings are decoded from
+ * the shared string table the first time they are needed. Every client on
+ * a host that loads the same compiled mappings shares the file's pages
+ * through the page cache, and none of them parse any JSON.
+ * <p>
+ * The layout, all big-endian:
+ * <pre>
+ * int       magic, "PMAP"
+ * int       format version
+ * int       string count
+ * int[]     offset of every string in the file
+ * int       class count
+ * class[]   deobfuscated name, obfuscated name, descriptor (-1 for none),
+ *           and offset of the members, as string indexes and an int;
+ *           sorted by deobfuscated name
+ * members[] field count, (deobfuscated name, obfuscated name) per field,
+ *           method count, (name, deobfuscated name, descriptor) per method,
+ *           all as string indexes
+ * string[]  unsigned short length, then that many bytes of UTF-8; sorted
+ * </pre>
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class BinaryMappings {
+    static final int MAGIC = 0x504D4150;
+    static final int VERSION = 1;
+
+    /**
+     * The size of a class record, in bytes.
+     */
+    static final int CLASS_SIZE = 16;
+
+    private final ByteBuffer buffer;
+    private final int stringOffsets;
+    private final String[] strings;
+
+    private BinaryMappings(final ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if(buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a compiled mappings file");
+        }
+        if(buffer.getInt(4) != VERSION) {
+            throw new IOException("Compiled mappings are format version " + buffer.getInt(4) + ", expected " + VERSION
+                    + "; recompile them with MappingCompiler");
+        }
+        stringOffsets = 12;
+        strings = new String[buffer.getInt(8)];
+    }
+
+    /**
+     * @param file A mappings file
+     * @return Whether the file is compiled mappings, rather than JSON
+     * @throws IOException if the file couldn't be read
+     */
+    public static boolean isBinary(final File file) throws IOException {
+        try(final InputStream in = Files.newInputStream(file.toPath())) {
+            return new DataInputStream(in).readInt() == MAGIC;
+        } catch(final EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Maps compiled mappings into memory.
+     *
+     * @param file The compiled mappings
+     * @return The classes in them, sorted by deobfuscated name. Their
+     * members are decoded on first use.
+     * @throws IOException if the file couldn't be mapped or isn't compiled
+     *                     mappings
+     */
+    public static List<MappedClass> map(final File file) throws IOException {
+        final ByteBuffer buffer;
+        // The mapping stays valid after the channel is closed
+        try(final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+        }
+        return new BinaryMappings(buffer).classes();
+    }
+
+    private List<MappedClass> classes() {
+        final int classes = stringOffsets + strings.length * 4;
+        final int count = buffer.getInt(classes);
+        final List<MappedClass> mappedClasses = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            final int record = classes + 4 + i * CLASS_SIZE;
+            final int members = buffer.getInt(record + 12);
+            mappedClasses.add(new MappedClass(string(buffer.getInt(record)), string(buffer.getInt(record + 4)),
+                    string(buffer.getInt(record + 8)), () -> members(members)));
+        }
+        return mappedClasses;
+    }
+
+    private Members members(int offset) {
+        final int fieldCount = buffer.getInt(offset);
+        offset += 4;
+        final String[] fieldNames = new String[fieldCount];
+        final String[] obfuscatedFieldNames = new String[fieldCount];
+        for(int i = 0; i < fieldCount; i++, offset += 8) {
+            fieldNames[i] = string(buffer.getInt(offset));
+            obfuscatedFieldNames[i] = string(buffer.getInt(offset + 4));
+        }
+        final int methodCount = buffer.getInt(offset);
+        offset += 4;
+        final MethodDef[] methods = new MethodDef[methodCount];
+        for(int i = 0; i < methodCount; i++, offset += 12) {
+            methods[i] = new MethodDef(string(buffer.getInt(offset)), string(buffer.getInt(offset + 4)),
+                    string(buffer.getInt(offset + 8)));
+        }
+        return new Members(fieldNames, obfuscatedFieldNames, methods);
+    }
+
+    /**
+     * Decodes a string, or returns it if it was decoded before. Racing
+     * decodes of the same string are harmless; both are equal.
+     */
+    private String string(final int index) {
+        if(index < 0) {
+            return null;
+        }
+        String string = strings[index];
+        if(string == null) {
+            final int offset = buffer.getInt(stringOffsets + index * 4);
+            final byte[] bytes = new byte[buffer.getShort(offset) & 0xFFFF];
+            // A duplicate, so that concurrent decodes don't share a position
+            final ByteBuffer duplicate = buffer.duplicate();
+            duplicate.position(offset + 2);
+            duplicate.get(bytes);
+            string = new String(bytes, StandardCharsets.UTF_8);
+            strings[index] = string;
+        }
+        return string;
+    }
+}
@@ -1,30 +1,96 @@
 package lgbt.audrey.pipe.bytecode.map;
 
-import lombok.Getter;
-
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Optional;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
+ * The classes from the mappings of the game version being run.
+ * <p>
+ * {@link #load(Collection)} replaces all of them at once and builds hash
+ * indexes by deobfuscated and obfuscated name, so that lookups from hot code
+ * are a single hash lookup that doesn't allocate. The member indexes of a
+ * class are only built once something looks into it, as most classes in the
+ * mappings never are. The indexes are immutable and swapped in as a whole, so
+ * lookups racing a reload see either the old mappings or the new ones.
+ *
  * @author audrey
  * @since 12/17/15.
  */
 public final class ClassMap {
-    @Getter
-    @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
-    private static final Collection<MappedClass> mappedClasses = new CopyOnWriteArrayList<>();
+    private static volatile Index index = new Index(Collections.emptyList());
 
     private ClassMap() {
     }
 
+    /**
+     * Replaces the mappings.
+     *
+     * @param classes The classes from the mappings
+     */
+    public static void load(final Collection<MappedClass> classes) {
+        index = new Index(classes);
+    }
+
+    /**
+     * @return Every class in the mappings. Unmodifiable.
+     */
+    public static Collection<MappedClass> getMappedClasses() {
+        return index.classes;
+    }
+
+    /**
+     * @param deobfuscatedName The deobfuscated name of the class, ignoring
+     *                         case
+     * @return The class
+     * @throws IllegalArgumentException if the class isn't in the mappings
+     */
     public static MappedClass getClassByName(final String deobfuscatedName) {
-        final Optional<MappedClass> c = mappedClasses.stream()
-                .filter(m -> m.getDeobfuscatedName().equalsIgnoreCase(deobfuscatedName)).findFirst();
-        if(!c.isPresent()) {
+        final Index index = ClassMap.index;
+        MappedClass c = index.byName.get(deobfuscatedName);
+        if(c == null) {
+            c = index.byName.get(deobfuscatedName.toLowerCase(Locale.ROOT));
+        }
+        if(c == null) {
             throw new IllegalArgumentException("Could not find class with deobfuscated name '"
                     + deobfuscatedName + "'. Are you sure it exists?");
         }
-        return c.get();
+        return c;
+    }
+
+    /**
+     * @param obfuscatedName The obfuscated name of the class, in either
+     *                       internal (<tt>a/b</tt>) or binary (<tt>a.b</tt>)
+     *                       form
+     * @return The class, or null if it isn't in the mappings
+     */
+    public static MappedClass getClassByObfuscatedName(final String obfuscatedName) {
+        return index.byObfuscatedName.get(obfuscatedName);
+    }
+
+    private static final class Index {
+        private final Collection<MappedClass> classes;
+        private final Map<String, MappedClass> byName;
+        private final Map<String, MappedClass> byObfuscatedName;
+
+        private Index(final Collection<MappedClass> classes) {
+            final Map<String, MappedClass> byName = new HashMap<>();
+            final Map<String, MappedClass> byObfuscatedName = new HashMap<>();
+            for(final MappedClass mappedClass : classes) {
+                for(final String key : MappedClass.keys(mappedClass.getDeobfuscatedName())) {
+                    byName.putIfAbsent(key, mappedClass);
+                }
+                final String obfuscatedName = mappedClass.getObfuscatedName();
+                byObfuscatedName.putIfAbsent(obfuscatedName, mappedClass);
+                byObfuscatedName.putIfAbsent(obfuscatedName.replace('/', '.'), mappedClass);
+                byObfuscatedName.putIfAbsent(obfuscatedName.replace('.', '/'), mappedClass);
+            }
+            this.classes = Collections.unmodifiableList(new ArrayList<>(classes));
+            this.byName = Collections.unmodifiableMap(byName);
+            this.byObfuscatedName = Collections.unmodifiableMap(byObfuscatedName);
+        }
     }
 }
@@ -1,25 +1,89 @@
 package lgbt.audrey.pipe.bytecode.map;
 
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.Value;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
+ * A class from the mappings, with its fields and methods.
+ * <p>
+ * Members are kept in plain arrays, to keep the thousands of classes in a
+ * mappings file small. Classes from {@link BinaryMappings} only decode their
+ * members the first time they are looked into. Method and field lookups go
+ * through hash indexes that are built at the same point, so they don't scan
+ * the member arrays and don't allocate.
+ *
  * @author audrey
  * @since 12/17/15.
  */
-@Value
-public class MappedClass {
-    private String deobfuscatedName;
-    private String obfuscatedName;
-    private String description;
+@ToString(exclude = {"source", "fieldView", "index"})
+@EqualsAndHashCode(exclude = {"source", "members", "fieldView", "index"})
+public final class MappedClass {
+    @Getter
+    private final String deobfuscatedName;
+    @Getter
+    private final String obfuscatedName;
+    @Getter
+    private final String description;
 
-    private Map<String, String> fields;
-    @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
-    private List<MethodDef> methods;
+    /**
+     * Where {@link #members} are decoded from, or null if they were given
+     * up front.
+     */
+    private final Supplier<Members> source;
+
+    private volatile Members members;
+
+    /**
+     * {@link #getFields()}, created on first use.
+     */
+    private Map<String, String> fieldView;
+
+    private volatile Index index;
+
+    /**
+     * @param deobfuscatedName     The deobfuscated name of the class
+     * @param obfuscatedName       The obfuscated name of the class
+     * @param description          The type descriptor of the class, e.g.
+     *                             <tt>Lbcf;</tt>
+     * @param fieldNames           The deobfuscated names of its fields
+     * @param obfuscatedFieldNames The obfuscated names of its fields, in the
+     *                             same order
+     * @param methods              Its methods
+     */
+    public MappedClass(final String deobfuscatedName, final String obfuscatedName, final String description,
+                       final String[] fieldNames, final String[] obfuscatedFieldNames, final MethodDef[] methods) {
+        this(deobfuscatedName, obfuscatedName, description, null);
+        members = new Members(fieldNames, obfuscatedFieldNames, methods);
+    }
+
+    /**
+     * Creates a class whose members are decoded on first use.
+     */
+    MappedClass(final String deobfuscatedName, final String obfuscatedName, final String description,
+                final Supplier<Members> source) {
+        this.deobfuscatedName = deobfuscatedName;
+        this.obfuscatedName = obfuscatedName;
+        this.description = description;
+        this.source = source;
+    }
 
     @Value
     @RequiredArgsConstructor
@@ -34,7 +98,265 @@ public class MappedClass {
         }
     }
 
+    /**
+     * @return The fields of this class, from deobfuscated to obfuscated name.
+     * Unmodifiable; {@link Map#get(Object)} is a hash lookup.
+     */
+    public Map<String, String> getFields() {
+        Map<String, String> fieldView = this.fieldView;
+        if(fieldView == null) {
+            fieldView = new FieldView();
+            this.fieldView = fieldView;
+        }
+        return fieldView;
+    }
+
+    /**
+     * @return The methods of this class, in mappings order. Unmodifiable.
+     */
+    public List<MethodDef> getMethods() {
+        return Collections.unmodifiableList(Arrays.asList(members().methods));
+    }
+
+    /**
+     * Finds a method by its deobfuscated name, ignoring case. If the method
+     * is overloaded, the first overload in the mappings is returned; use
+     * {@link #getMethod(String, String)} to pick a specific one.
+     *
+     * @param name The deobfuscated name of the method
+     * @return The method, if it exists
+     */
     public Optional<MethodDef> getMethod(final String name) {
-        return methods.stream().filter(m -> m.deobfName.equalsIgnoreCase(name)).findFirst();
+        final Index index = index();
+        final Optional<MethodDef> method = index.methodsByName.get(name);
+        if(method != null) {
+            return method;
+        }
+        return index.methodsByName.getOrDefault(name.toLowerCase(Locale.ROOT), Optional.empty());
+    }
+
+    /**
+     * Finds a single overload of a method.
+     *
+     * @param name The deobfuscated name of the method, ignoring case
+     * @param desc The obfuscated descriptor of the method
+     * @return The method, if it exists
+     */
+    public Optional<MethodDef> getMethod(final String name, final String desc) {
+        final Index index = index();
+        Map<String, Optional<MethodDef>> overloads = index.overloads.get(name);
+        if(overloads == null) {
+            overloads = index.overloads.get(name.toLowerCase(Locale.ROOT));
+        }
+        return overloads == null ? Optional.empty() : overloads.getOrDefault(desc, Optional.empty());
+    }
+
+    /**
+     * Finds a method by its obfuscated name and descriptor, as they appear in
+     * the game's class files.
+     *
+     * @param name The obfuscated name of the method
+     * @param desc The obfuscated descriptor of the method
+     * @return The method, if it is in the mappings
+     */
+    public Optional<MethodDef> getMethodByObfuscatedName(final String name, final String desc) {
+        final Map<String, Optional<MethodDef>> overloads = index().obfuscatedMethods.get(name);
+        return overloads == null ? Optional.empty() : overloads.getOrDefault(desc, Optional.empty());
+    }
+
+    /**
+     * @param name The deobfuscated name of a field
+     * @return The obfuscated name of the field, or null if it isn't in the
+     * mappings
+     */
+    public String getField(final String name) {
+        return index().fields.get(name);
+    }
+
+    /**
+     * @param name The obfuscated name of a field
+     * @return The deobfuscated name of the field, or null if it isn't in the
+     * mappings
+     */
+    public String getFieldByObfuscatedName(final String name) {
+        return index().obfuscatedFields.get(name);
+    }
+
+    /**
+     * Walks the objects that make up this class's mappings, for
+     * {@link MappingReader#estimateRetainedSize}. The lazily built lookup
+     * indexes aren't included, and neither are members that haven't been
+     * decoded yet.
+     */
+    void forEachRetained(final Consumer<Object> action) {
+        action.accept(this);
+        action.accept(deobfuscatedName);
+        action.accept(obfuscatedName);
+        if(description != null) {
+            action.accept(description);
+        }
+        final Members members = this.members;
+        if(members == null) {
+            return;
+        }
+        action.accept(members);
+        action.accept(members.fieldNames);
+        action.accept(members.obfuscatedFieldNames);
+        action.accept(members.methods);
+        for(int i = 0; i < members.fieldNames.length; i++) {
+            action.accept(members.fieldNames[i]);
+            action.accept(members.obfuscatedFieldNames[i]);
+        }
+        for(final MethodDef method : members.methods) {
+            action.accept(method);
+            action.accept(method.name);
+            action.accept(method.deobfName);
+            action.accept(method.desc);
+        }
+    }
+
+    private Members members() {
+        Members members = this.members;
+        if(members == null) {
+            members = source.get();
+            this.members = members;
+        }
+        return members;
+    }
+
+    private Index index() {
+        Index index = this.index;
+        if(index == null) {
+            index = new Index(members());
+            this.index = index;
+        }
+        return index;
+    }
+
+    /**
+     * The fields and methods of a class.
+     */
+    static final class Members {
+        /**
+         * Deobfuscated field names, parallel to {@link #obfuscatedFieldNames}.
+         */
+        private final String[] fieldNames;
+        private final String[] obfuscatedFieldNames;
+        private final MethodDef[] methods;
+
+        Members(final String[] fieldNames, final String[] obfuscatedFieldNames, final MethodDef[] methods) {
+            if(fieldNames.length != obfuscatedFieldNames.length) {
+                throw new IllegalArgumentException("Field names don't line up: " + fieldNames.length
+                        + " deobfuscated, " + obfuscatedFieldNames.length + " obfuscated");
+            }
+            this.fieldNames = fieldNames;
+            this.obfuscatedFieldNames = obfuscatedFieldNames;
+            this.methods = methods;
+        }
+
+        @Override
+        public String toString() {
+            return "fields=" + Arrays.toString(fieldNames) + ", methods=" + Arrays.toString(methods);
+        }
+    }
+
+    /**
+     * The member lookups of a class. Immutable once built; a racing build
+     * just produces an equal copy.
+     * <p>
+     * The name keys are stored both as in the mappings and lower-cased, so
+     * that lookups which use the mappings' own spelling, as all of Pipe's do,
+     * are a single hash lookup with no case folding.
+     */
+    private static final class Index {
+        private final Map<String, Optional<MethodDef>> methodsByName;
+        private final Map<String, Map<String, Optional<MethodDef>>> overloads;
+        private final Map<String, Map<String, Optional<MethodDef>>> obfuscatedMethods;
+        private final Map<String, String> fields;
+        private final Map<String, String> obfuscatedFields;
+
+        private Index(final Members members) {
+            final Map<String, Optional<MethodDef>> methodsByName = new HashMap<>();
+            final Map<String, Map<String, Optional<MethodDef>>> overloads = new HashMap<>();
+            final Map<String, Map<String, Optional<MethodDef>>> obfuscatedMethods = new HashMap<>();
+            for(final MethodDef method : members.methods) {
+                final Optional<MethodDef> value = Optional.of(method);
+                for(final String key : keys(method.deobfName)) {
+                    methodsByName.putIfAbsent(key, value);
+                    overloads.computeIfAbsent(key, k -> new HashMap<>()).putIfAbsent(method.desc, value);
+                }
+                obfuscatedMethods.computeIfAbsent(method.name, k -> new HashMap<>()).putIfAbsent(method.desc, value);
+            }
+            final Map<String, String> fields = new HashMap<>();
+            final Map<String, String> obfuscatedFields = new HashMap<>();
+            for(int i = 0; i < members.fieldNames.length; i++) {
+                fields.putIfAbsent(members.fieldNames[i], members.obfuscatedFieldNames[i]);
+                obfuscatedFields.putIfAbsent(members.obfuscatedFieldNames[i], members.fieldNames[i]);
+            }
+            overloads.replaceAll((k, v) -> Collections.unmodifiableMap(v));
+            obfuscatedMethods.replaceAll((k, v) -> Collections.unmodifiableMap(v));
+            this.methodsByName = Collections.unmodifiableMap(methodsByName);
+            this.overloads = Collections.unmodifiableMap(overloads);
+            this.obfuscatedMethods = Collections.unmodifiableMap(obfuscatedMethods);
+            this.fields = Collections.unmodifiableMap(fields);
+            this.obfuscatedFields = Collections.unmodifiableMap(obfuscatedFields);
+        }
+    }
+
+    /**
+     * @return The name as in the mappings, followed by its lower-cased form
+     * if that differs
+     */
+    static String[] keys(final String name) {
+        final String folded = name.toLowerCase(Locale.ROOT);
+        return folded.equals(name) ? new String[] {name} : new String[] {name, folded};
+    }
+
+    /**
+     * {@link #getFields()}: iterates the field arrays, looks up through the
+     * index.
+     */
+    private final class FieldView extends AbstractMap<String, String> {
+        @Override
+        public Set<Entry<String, String>> entrySet() {
+            return new AbstractSet<Entry<String, String>>() {
+                @Override
+                public Iterator<Entry<String, String>> iterator() {
+                    return new Iterator<Entry<String, String>>() {
+                        private final Members members = members();
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < members.fieldNames.length;
+                        }
+
+                        @Override
+                        public Entry<String, String> next() {
+                            if(!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            final int i = next++;
+                            return new SimpleImmutableEntry<>(members.fieldNames[i], members.obfuscatedFieldNames[i]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return members().fieldNames.length;
+                }
+            };
+        }
+
+        @Override
+        public String get(final Object key) {
+            return key instanceof String ? getField((String) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return get(key) != null;
+        }
     }
 }
@@ -0,0 +1,157 @@
+package lgbt.audrey.pipe.bytecode.map;
+
+import lgbt.audrey.pipe.bytecode.map.MappedClass.MethodDef;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Compiles JSON mappings into the binary format that {@link BinaryMappings}
+ * loads. Run it from the command line:
+ * <pre>
+ * java -cp Pipe-0.1-DEV.jar lgbt.audrey.pipe.bytecode.map.MappingCompiler mapping.json mapping.pipemap
+ * </pre>
+ * and point <tt>pipe.mappings.path</tt> at the output. The same JSON always
+ * compiles to the same bytes.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class MappingCompiler {
+    private MappingCompiler() {
+    }
+
+    public static void main(final String[] args) {
+        if(args.length != 2) {
+            System.err.println("Usage: MappingCompiler <mappings.json> <output>");
+            System.exit(1);
+        }
+        try {
+            final File in = new File(args[0]);
+            final File out = new File(args[1]);
+            final List<MappedClass> classes = MappingReader.read(in);
+            compile(classes, out);
+            System.out.println("Compiled " + classes.size() + " classes from " + in + " (" + in.length() + " bytes) to "
+                    + out + " (" + out.length() + " bytes)");
+        } catch(final IOException | IllegalArgumentException e) {
+            System.err.println("Couldn't compile mappings: " + e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Writes classes out as compiled mappings. The file is replaced
+     * atomically where the file system allows it, so that clients mapping
+     * the old file keep a consistent view.
+     *
+     * @param classes The classes
+     * @param file    The file to write
+     * @throws IOException if the file couldn't be written
+     */
+    public static void compile(final List<MappedClass> classes, final File file) throws IOException {
+        final List<MappedClass> sorted = new ArrayList<>(classes);
+        sorted.sort(Comparator.comparing(MappedClass::getDeobfuscatedName));
+
+        final Set<String> stringSet = new TreeSet<>();
+        for(final MappedClass mappedClass : sorted) {
+            add(stringSet, mappedClass.getDeobfuscatedName());
+            add(stringSet, mappedClass.getObfuscatedName());
+            add(stringSet, mappedClass.getDescription());
+            mappedClass.getFields().forEach((name, obfuscatedName) -> {
+                add(stringSet, name);
+                add(stringSet, obfuscatedName);
+            });
+            for(final MethodDef method : mappedClass.getMethods()) {
+                add(stringSet, method.getName());
+                add(stringSet, method.getDeobfName());
+                add(stringSet, method.getDesc());
+            }
+        }
+        final List<byte[]> strings = new ArrayList<>(stringSet.size());
+        final Map<String, Integer> indexes = new HashMap<>();
+        for(final String string : stringSet) {
+            final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            if(bytes.length > 0xFFFF) {
+                throw new IllegalArgumentException("Name too long for compiled mappings: " + string.substring(0, 64) + "...");
+            }
+            indexes.put(string, strings.size());
+            strings.add(bytes);
+        }
+
+        final int header = 12 + strings.size() * 4 + 4 + sorted.size() * BinaryMappings.CLASS_SIZE;
+        int members = header;
+        final int[] memberOffsets = new int[sorted.size()];
+        for(int i = 0; i < sorted.size(); i++) {
+            memberOffsets[i] = members;
+            members += 4 + sorted.get(i).getFields().size() * 8 + 4 + sorted.get(i).getMethods().size() * 12;
+        }
+
+        final File temp = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+        try(final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp.toPath())))) {
+            out.writeInt(BinaryMappings.MAGIC);
+            out.writeInt(BinaryMappings.VERSION);
+            out.writeInt(strings.size());
+            int offset = members;
+            for(final byte[] string : strings) {
+                out.writeInt(offset);
+                offset += 2 + string.length;
+            }
+            out.writeInt(sorted.size());
+            for(int i = 0; i < sorted.size(); i++) {
+                final MappedClass mappedClass = sorted.get(i);
+                out.writeInt(index(indexes, mappedClass.getDeobfuscatedName()));
+                out.writeInt(index(indexes, mappedClass.getObfuscatedName()));
+                out.writeInt(index(indexes, mappedClass.getDescription()));
+                out.writeInt(memberOffsets[i]);
+            }
+            for(final MappedClass mappedClass : sorted) {
+                out.writeInt(mappedClass.getFields().size());
+                for(final Map.Entry<String, String> field : mappedClass.getFields().entrySet()) {
+                    out.writeInt(index(indexes, field.getKey()));
+                    out.writeInt(index(indexes, field.getValue()));
+                }
+                out.writeInt(mappedClass.getMethods().size());
+                for(final MethodDef method : mappedClass.getMethods()) {
+                    out.writeInt(index(indexes, method.getName()));
+                    out.writeInt(index(indexes, method.getDeobfName()));
+                    out.writeInt(index(indexes, method.getDesc()));
+                }
+            }
+            for(final byte[] string : strings) {
+                out.writeShort(string.length);
+                out.write(string);
+            }
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch(final AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void add(final Set<String> strings, final String string) {
+        if(string != null) {
+            strings.add(string);
+        }
+    }
+
+    /**
+     * @return The index of a string in the string table, or -1 for null
+     */
+    private static int index(final Map<String, Integer> indexes, final String string) {
+        return string == null ? -1 : indexes.get(string);
+    }
+}
@@ -0,0 +1,212 @@
+package lgbt.audrey.pipe.bytecode.map;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import lgbt.audrey.pipe.bytecode.map.MappedClass.MethodDef;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.instrument.Instrumentation;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads a JSON mappings file into {@link MappedClass}es.
+ * <p>
+ * The file is streamed token by token straight into the classes' member
+ * arrays, rather than being read into one string and bound through
+ * reflection. Names are deduplicated while reading: owner names, common
+ * descriptors and short obfuscated names repeat throughout a mappings file,
+ * and each is kept only once.
+ * <p>
+ * The file is an array of classes:
+ * <pre>
+ * [{"deobfuscatedName": "Minecraft", "obfuscatedName": "bcf", "description": "Lbcf;",
+ *   "fields": {"thePlayer": "h", ...},
+ *   "methods": [{"name": "a", "deobfName": "getMinecraft", "desc": "()Lbcf;"}, ...]}, ...]
+ * </pre>
+ * Unknown keys are skipped.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class MappingReader {
+    private static final String[] NO_STRINGS = new String[0];
+    private static final MethodDef[] NO_METHODS = new MethodDef[0];
+
+    private final JsonReader json;
+    private final Map<String, String> strings = new HashMap<>();
+
+    private MappingReader(final Reader reader) {
+        json = new JsonReader(reader);
+    }
+
+    /**
+     * @param file The mappings file
+     * @return The classes in it, in file order
+     * @throws IOException if the file couldn't be read or isn't valid
+     */
+    public static List<MappedClass> read(final File file) throws IOException {
+        try(final Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return read(reader);
+        }
+    }
+
+    /**
+     * @param reader The mappings
+     * @return The classes in them, in order
+     * @throws IOException if the mappings couldn't be read or aren't valid
+     */
+    public static List<MappedClass> read(final Reader reader) throws IOException {
+        return new MappingReader(reader).readClasses();
+    }
+
+    /**
+     * Estimates how much heap the given classes keep alive: the classes,
+     * their member arrays and method definitions, and every distinct name
+     * along with its characters. The lookup indexes aren't counted, as they
+     * are only built for the classes that are looked into.
+     *
+     * @param instrumentation The instrumentation to size objects with
+     * @param classes         The classes
+     * @return The size in bytes
+     */
+    public static long estimateRetainedSize(final Instrumentation instrumentation, final Collection<MappedClass> classes) {
+        final Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        final long[] size = {instrumentation.getObjectSize(classes)};
+        // Strings share the header size of arrays, so measure an empty one
+        // once and add the characters to it; asking for the backing array
+        // itself would need reflection into java.lang.String
+        final long arrayHeader = instrumentation.getObjectSize(new byte[0]);
+        final int bytesPerChar = System.getProperty("java.specification.version").startsWith("1.") ? 2 : 1;
+        for(final MappedClass mappedClass : classes) {
+            mappedClass.forEachRetained(o -> {
+                if(seen.add(o)) {
+                    size[0] += instrumentation.getObjectSize(o);
+                    if(o instanceof String) {
+                        size[0] += (arrayHeader + (long) ((String) o).length() * bytesPerChar + 7) & ~7L;
+                    }
+                }
+            });
+        }
+        return size[0];
+    }
+
+    private List<MappedClass> readClasses() throws IOException {
+        final List<MappedClass> classes = new ArrayList<>();
+        json.beginArray();
+        while(json.hasNext()) {
+            classes.add(readClass());
+        }
+        json.endArray();
+        return classes;
+    }
+
+    private MappedClass readClass() throws IOException {
+        String deobfuscatedName = null;
+        String obfuscatedName = null;
+        String description = null;
+        String[] fieldNames = NO_STRINGS;
+        String[] obfuscatedFieldNames = NO_STRINGS;
+        MethodDef[] methods = NO_METHODS;
+        json.beginObject();
+        while(json.hasNext()) {
+            switch(json.nextName()) {
+                case "deobfuscatedName":
+                    deobfuscatedName = nextString();
+                    break;
+                case "obfuscatedName":
+                    obfuscatedName = nextString();
+                    break;
+                case "description":
+                    description = nextString();
+                    break;
+                case "fields":
+                    if(json.peek() == JsonToken.NULL) {
+                        json.nextNull();
+                        break;
+                    }
+                    final List<String> names = new ArrayList<>();
+                    final List<String> obfuscatedNames = new ArrayList<>();
+                    json.beginObject();
+                    while(json.hasNext()) {
+                        names.add(intern(json.nextName()));
+                        obfuscatedNames.add(nextString());
+                    }
+                    json.endObject();
+                    fieldNames = names.toArray(NO_STRINGS);
+                    obfuscatedFieldNames = obfuscatedNames.toArray(NO_STRINGS);
+                    break;
+                case "methods":
+                    if(json.peek() == JsonToken.NULL) {
+                        json.nextNull();
+                        break;
+                    }
+                    final List<MethodDef> defs = new ArrayList<>();
+                    json.beginArray();
+                    while(json.hasNext()) {
+                        defs.add(readMethod());
+                    }
+                    json.endArray();
+                    methods = defs.toArray(NO_METHODS);
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        json.endObject();
+        if(deobfuscatedName == null || obfuscatedName == null) {
+            throw new IOException("Class without a name in mappings: " + deobfuscatedName + " / " + obfuscatedName
+                    + " (" + json + ')');
+        }
+        return new MappedClass(deobfuscatedName, obfuscatedName, description, fieldNames, obfuscatedFieldNames, methods);
+    }
+
+    private MethodDef readMethod() throws IOException {
+        String name = null;
+        String deobfName = null;
+        String desc = null;
+        json.beginObject();
+        while(json.hasNext()) {
+            switch(json.nextName()) {
+                case "name":
+                    name = nextString();
+                    break;
+                case "deobfName":
+                    deobfName = nextString();
+                    break;
+                case "desc":
+                    desc = nextString();
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        json.endObject();
+        return new MethodDef(name, deobfName, desc);
+    }
+
+    private String nextString() throws IOException {
+        if(json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        return intern(json.nextString());
+    }
+
+    private String intern(final String s) {
+        final String existing = strings.putIfAbsent(s, s);
+        return existing == null ? s : existing;
+    }
+}
@@ -1,6 +1,7 @@
 package lgbt.audrey.pipe.bytecode.v1_10_X.injectors;
 
 import lgbt.audrey.pipe.bytecode.Injector;
+import lgbt.audrey.pipe.bytecode.InsnIndex;
 import lgbt.audrey.pipe.bytecode.map.MappedClass;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.ClassNode;
@@ -19,9 +20,14 @@ public class BlockEntityInjector extends Injector {
         super(classToInject);
     }
 
+    @Override
+    protected boolean isTargetField(final String name, final String desc) {
+        return name.equals(getClassToInject().getFields().get("blockPos"));
+    }
+
     @Override
     @SuppressWarnings("unchecked")
-    protected void inject(final ClassReader classReader, final ClassNode classNode) {
+    protected void inject(final ClassReader classReader, final ClassNode classNode, final InsnIndex index) {
         final String blockPos = getClassToInject().getFields().get("blockPos");
         ((List<FieldNode>) classNode.fields).stream().filter(f -> f.name.equals(blockPos))
                 .forEach(f -> f.access = ACC_PUBLIC);
@@ -1,6 +1,7 @@
 package lgbt.audrey.pipe.bytecode.v1_10_X.injectors;
 
 import lgbt.audrey.pipe.bytecode.Injector;
+import lgbt.audrey.pipe.bytecode.InsnIndex;
 import lgbt.audrey.pipe.bytecode.map.MappedClass;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.*;
@@ -16,9 +17,15 @@ public class BlockSoulSandInjector extends Injector {
         super(classToInject);
     }
 
+    @Override
+    protected boolean isTargetMethod(final String name, final String desc) {
+        final MappedClass.MethodDef blockCollide = getClassToInject().getMethod("onEntityCollidedWithBlock").get();
+        return name.equals(blockCollide.getName()) && desc.contains(blockCollide.getDesc());
+    }
+
     @Override
     @SuppressWarnings("unchecked")
-    protected void inject(final ClassReader cr, final ClassNode cn) {
+    protected void inject(final ClassReader cr, final ClassNode cn, final InsnIndex index) {
         final MappedClass.MethodDef blockCollide = getClassToInject().getMethod("onEntityCollidedWithBlock").get();
         ((List<MethodNode>) cn.methods).stream()
                 .filter(m -> m.name.equals(blockCollide.getName()) && m.desc.contains(blockCollide.getDesc()))
@@ -27,17 +34,18 @@ public class BlockSoulSandInjector extends Injector {
                     final InsnList list = new InsnList();
                     list.add(new MethodInsnNode(INVOKESTATIC, "lgbt/audrey/pipe/Pipe", "getInstance", "()Llgbt/audrey/pipe/Pipe;", false));
                     list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/Pipe", "getEventBus", "()Llgbt/audrey/pipe/event/EventBus;", false));
-                    list.add(new TypeInsnNode(NEW, "lgbt/audrey/pipe/event/events/SoulSandSpeed"));
-                    list.add(new InsnNode(DUP));
-                    list.add(new MethodInsnNode(INVOKESPECIAL, "lgbt/audrey/pipe/event/events/SoulSandSpeed", "<init>", "()V", false));
+                    list.add(new MethodInsnNode(INVOKESTATIC, "lgbt/audrey/pipe/event/events/SoulSandSpeed", "obtain", "()Llgbt/audrey/pipe/event/events/SoulSandSpeed;", false));
                     list.add(new MethodInsnNode(INVOKEINTERFACE, "lgbt/audrey/pipe/event/EventBus", "push", "(Ljava/lang/Object;)Ljava/lang/Object;", true));
-                    list.add(new TypeInsnNode(CHECKCAST, "lgbt/audrey/pipe/util/Cancellable"));
-                    list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/util/Cancellable", "isCancelled", "()Z", false));
+                    list.add(new TypeInsnNode(CHECKCAST, "lgbt/audrey/pipe/event/events/SoulSandSpeed"));
+                    list.add(new InsnNode(DUP));
+                    list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/event/events/SoulSandSpeed", "isCancelled", "()Z", false));
+                    list.add(new InsnNode(SWAP));
+                    list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/event/events/SoulSandSpeed", "release", "()V", false));
                     list.add(new JumpInsnNode(IFEQ, l));
                     list.add(new InsnNode(RETURN));
                     list.add(l);
                     //list.add(new InsnNode(POP));
-                    m.instructions.insert(list);
+                    m.instructions.insert(guardCancellable("SoulSandSpeed", list, returning()));
                 });
     }
 }
\ No newline at end of file
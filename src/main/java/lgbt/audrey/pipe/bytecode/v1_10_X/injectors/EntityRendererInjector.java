@@ -2,13 +2,13 @@ package lgbt.audrey.pipe.bytecode.v1_10_X.injectors;
 
 import lgbt.audrey.pipe.bytecode.AccessHelper;
 import lgbt.audrey.pipe.bytecode.Injector;
+import lgbt.audrey.pipe.bytecode.InsnIndex;
 import lgbt.audrey.pipe.bytecode.map.MappedClass;
 import lgbt.audrey.pipe.bytecode.map.MappedClass.MethodDef;
 import lgbt.audrey.pipe.event.events.Render3D;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.*;
 
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -22,9 +22,17 @@ public class EntityRendererInjector extends Injector {
         super(classToInject);
     }
 
+    @Override
+    protected boolean isTargetMethod(final String name, final String desc) {
+        final MethodDef doWorldRender = getClassToInject().getMethod("doWorldRender").get();
+        final MethodDef applyViewBobbing = getClassToInject().getMethod("applyViewBobbing").get();
+        return name.equals(doWorldRender.getName()) && desc.equals(doWorldRender.getDesc())
+                || name.equals(applyViewBobbing.getName()) && desc.equals(applyViewBobbing.getDesc());
+    }
+
     @Override
     @SuppressWarnings("unchecked")
-    protected void inject(final ClassReader classReader, final ClassNode classNode) {
+    protected void inject(final ClassReader classReader, final ClassNode classNode, final InsnIndex index) {
         final MethodDef doWorldRender = getClassToInject().getMethod("doWorldRender").get();
         final MethodDef applyViewBobbing = getClassToInject().getMethod("applyViewBobbing").get();
 
@@ -34,33 +42,15 @@ public class EntityRendererInjector extends Injector {
                 list.add(new MethodInsnNode(INVOKESTATIC, "org/lwjgl/opengl/GL11", "glPushMatrix", "()V", false));
                 list.add(new MethodInsnNode(INVOKESTATIC, "lgbt/audrey/pipe/Pipe", "getInstance", "()Llgbt/audrey/pipe/Pipe;", false));
                 list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/Pipe", "getEventBus", "()Llgbt/audrey/pipe/event/EventBus;", false));
-                list.add(new TypeInsnNode(NEW, "lgbt/audrey/pipe/event/events/Render3D"));
-                list.add(new InsnNode(DUP));
                 list.add(new VarInsnNode(FLOAD, 2));
-                list.add(new MethodInsnNode(INVOKESPECIAL, "lgbt/audrey/pipe/event/events/Render3D", "<init>", "(F)V", false));
+                list.add(new MethodInsnNode(INVOKESTATIC, "lgbt/audrey/pipe/event/events/Render3D", "obtain", "(F)Llgbt/audrey/pipe/event/events/Render3D;", false));
                 list.add(new MethodInsnNode(INVOKEINTERFACE, "lgbt/audrey/pipe/event/EventBus", "push", "(Ljava/lang/Object;)Ljava/lang/Object;", true));
-                list.add(new InsnNode(POP));
+                list.add(new TypeInsnNode(CHECKCAST, "lgbt/audrey/pipe/event/events/Render3D"));
+                list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/event/events/Render3D", "release", "()V", false));
                 list.add(new MethodInsnNode(INVOKESTATIC, "org/lwjgl/opengl/GL11", "glPopMatrix", "()V", false));
-                final Iterator<AbstractInsnNode> i = m.instructions.iterator();
-                AbstractInsnNode injectInsn = null;
-                while(i.hasNext()) {
-                    final AbstractInsnNode insn = i.next();
-                    if(insn instanceof LdcInsnNode) {
-                        final LdcInsnNode linsn = (LdcInsnNode) insn;
-                        if(linsn.cst.equals(/*"hand"*/"entities")) {
-                            //injectInsn = insn.getNext();
-                            injectInsn = insn.getNext().getNext().getNext().getNext().getNext().getNext().getNext()
-                                    .getNext().getNext().getNext().getNext().getNext().getNext().getNext().getNext()
-                                    .getNext().getNext().getNext().getNext().getNext();
-                        }
-                    }
-                }
-
-                if(injectInsn == null) {
-                    throw new IllegalStateException("Instruction was null?!");
-                }
+                final AbstractInsnNode injectInsn = index.lastLdc(m, /*"hand"*/"entities").next(20).get();
                 // TODO: Useless? ;-;
-                m.instructions.insertBefore(injectInsn, list);
+                m.instructions.insertBefore(injectInsn, guard("Render3D", list));
             } else if(m.name.equals(applyViewBobbing.getName()) && m.desc.equals(applyViewBobbing.getDesc()) && AccessHelper.isPrivate(m.access)) {
                 m.instructions.clear();
                 m.instructions.insert(new InsnNode(RETURN));
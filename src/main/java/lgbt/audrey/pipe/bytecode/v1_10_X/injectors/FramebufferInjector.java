@@ -1,6 +1,7 @@
 package lgbt.audrey.pipe.bytecode.v1_10_X.injectors;
 
 import lgbt.audrey.pipe.bytecode.Injector;
+import lgbt.audrey.pipe.bytecode.InsnIndex;
 import lgbt.audrey.pipe.bytecode.map.MappedClass;
 import lgbt.audrey.pipe.bytecode.map.MappedClass.MethodDef;
 import org.objectweb.asm.ClassReader;
@@ -18,9 +19,15 @@ public class FramebufferInjector extends Injector {
         super(classToInject);
     }
 
+    @Override
+    protected boolean isTargetMethod(final String name, final String desc) {
+        return getClassToInject().getMethod("framebufferRender")
+                .map(md -> name.equals(md.getName()) && desc.equals(md.getDesc())).orElse(false);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
-    protected void inject(final ClassReader cr, final ClassNode cn) {
+    protected void inject(final ClassReader cr, final ClassNode cn, final InsnIndex index) {
         final Optional<MethodDef> framebufferRender = getClassToInject().getMethod("framebufferRender");
         if(framebufferRender.isPresent()) {
             final MethodDef md = framebufferRender.get();
@@ -31,7 +38,8 @@ public class FramebufferInjector extends Injector {
                     list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/Pipe", "getEventBus", "()Llgbt/audrey/pipe/event/EventBus;", false));
                     list.add(new FieldInsnNode(GETSTATIC, "lgbt/audrey/pipe/event/events/RenderFramebuffer", "instance", "Llgbt/audrey/pipe/event/events/RenderFramebuffer;"));
                     list.add(new MethodInsnNode(INVOKEINTERFACE, "lgbt/audrey/pipe/event/EventBus", "push", "(Ljava/lang/Object;)Ljava/lang/Object;", true));
-                    m.instructions.insert(list);
+                    list.add(new InsnNode(POP));
+                    m.instructions.insert(guard("RenderFramebuffer", list));
                 }
             }
         }
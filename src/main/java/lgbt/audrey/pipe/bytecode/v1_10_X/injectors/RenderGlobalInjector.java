@@ -1,13 +1,14 @@
 package lgbt.audrey.pipe.bytecode.v1_10_X.injectors;
 
 import lgbt.audrey.pipe.bytecode.Injector;
+import lgbt.audrey.pipe.bytecode.InsnIndex;
+import lgbt.audrey.pipe.bytecode.InsnIndex.Anchor;
 import lgbt.audrey.pipe.bytecode.map.ClassMap;
 import lgbt.audrey.pipe.bytecode.map.MappedClass;
 import lgbt.audrey.pipe.bytecode.map.MappedClass.MethodDef;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.*;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,9 +21,14 @@ public class RenderGlobalInjector extends Injector {
         super(classToInject);
     }
 
-    @SuppressWarnings("ConstantConditions")
     @Override
-    protected void inject(final ClassReader cr, final ClassNode cn) {
+    protected boolean isTargetMethod(final String name, final String desc) {
+        // Matched on the descriptor alone, like inject() does
+        return getClassToInject().getMethod("renderEntitiesWithCulling").map(m -> desc.equals(m.getDesc())).orElse(false);
+    }
+
+    @Override
+    protected void inject(final ClassReader cr, final ClassNode cn, final InsnIndex index) {
         final Optional<MethodDef> methodDef = getClassToInject().getMethod("renderEntitiesWithCulling");
         if(!methodDef.isPresent()) {
             throw new IllegalStateException("RenderGlobalInjector: No RenderGlobal#renderEntitiesWithCulling!?");
@@ -32,35 +38,19 @@ public class RenderGlobalInjector extends Injector {
         //noinspection unchecked
         for(final MethodNode node : (List<MethodNode>) cn.methods) {
             if(node.desc.equals(m.getDesc())) {
-                //noinspection unchecked
-                final Iterator<AbstractInsnNode> i = node.instructions.iterator();
-                AbstractInsnNode injectInsn = null;
-                VarInsnNode varInsnNode = null;
-                while(i.hasNext()) {
-                    final AbstractInsnNode insn = i.next();
-                    if(insn instanceof LdcInsnNode) {
-                        final LdcInsnNode linsn = (LdcInsnNode) insn;
-                        if(linsn.cst.equals("entityOutlines")) {
-                            injectInsn = insn.getPrevious().getPrevious().getPrevious().getPrevious().getPrevious()
-                                    .getPrevious().getPrevious().getPrevious().getPrevious().getPrevious().getPrevious()
-                                    .getPrevious().getPrevious().getPrevious().getPrevious().getPrevious().getPrevious()
-                                    .getPrevious().getPrevious().getPrevious().getPrevious();
-                            varInsnNode = (VarInsnNode) injectInsn.getPrevious().getPrevious();
-                        }
-                    }
-                }
-
+                final Anchor injectAt = index.lastLdc(node, "entityOutlines").previous(21);
+                final AbstractInsnNode injectInsn = injectAt.get();
+                final VarInsnNode varInsnNode = injectAt.previous(2).get(VarInsnNode.class);
 
                 final InsnList list = new InsnList();
                 list.add(new MethodInsnNode(INVOKESTATIC, "lgbt/audrey/pipe/Pipe", "eventBus", "()Llgbt/audrey/pipe/event/EventBus;", false));
-                list.add(new TypeInsnNode(NEW, "Llgbt/audrey/pipe/event/events/RenderEntity;"));
-                list.add(new InsnNode(DUP));
                 list.add(new VarInsnNode(ALOAD, varInsnNode.var));
                 list.add(new TypeInsnNode(CHECKCAST, ClassMap.getClassByName("Entity").getDescription()));
-                list.add(new MethodInsnNode(INVOKESPECIAL, "lgbt/audrey/pipe/event/events/RenderEntity", "<init>", "(Ljava/lang/Object;)V", false));
+                list.add(new MethodInsnNode(INVOKESTATIC, "lgbt/audrey/pipe/event/events/RenderEntity", "obtain", "(Ljava/lang/Object;)Llgbt/audrey/pipe/event/events/RenderEntity;", false));
                 list.add(new MethodInsnNode(INVOKEINTERFACE, "lgbt/audrey/pipe/event/EventBus", "push", "(Ljava/lang/Object;)Ljava/lang/Object;", true));
-                list.add(new InsnNode(POP));
-                node.instructions.insert(injectInsn, list);
+                list.add(new TypeInsnNode(CHECKCAST, "lgbt/audrey/pipe/event/events/RenderEntity"));
+                list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/event/events/RenderEntity", "release", "()V", false));
+                node.instructions.insert(injectInsn, guard("RenderEntity", list));
             }
         }
     }
@@ -1,5 +1,6 @@
 package lgbt.audrey.pipe.bytecode.v1_9_X.definers;
 
+import lgbt.audrey.pipe.Agent;
 import lgbt.audrey.pipe.bytecode.Redefiner;
 import lgbt.audrey.pipe.bytecode.v1_9_X.generators.HelperGenerator;
 import lgbt.audrey.pipe.util.helpers.Helper;
@@ -15,6 +16,6 @@ import java.lang.instrument.ClassDefinition;
 public class HelperRedefiner implements Redefiner {
     @Override
     public ClassDefinition redefine() {
-        return new ClassDefinition(Helper.class, new HelperGenerator().generate());
+        return new ClassDefinition(Helper.class, Agent.generate(new HelperGenerator()));
     }
 }
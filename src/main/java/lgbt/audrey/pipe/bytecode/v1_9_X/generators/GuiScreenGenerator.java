@@ -1,6 +1,7 @@
 package lgbt.audrey.pipe.bytecode.v1_9_X.generators;
 
 import lgbt.audrey.pipe.bytecode.Generator;
+import lgbt.audrey.pipe.gui.GuiModule;
 import lgbt.audrey.pipe.gui.GuiScreen;
 import org.objectweb.asm.*;
 
@@ -403,4 +404,9 @@ public class GuiScreenGenerator implements Generator {
     public String getClassName() {
         return "lgbt.audrey.pipe.gui.GuiScreen";
     }
+
+    @Override
+    public Class<?> getNeighbour() {
+        return GuiModule.class;
+    }
 }
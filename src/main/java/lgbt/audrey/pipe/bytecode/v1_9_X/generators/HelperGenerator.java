@@ -683,6 +683,11 @@ public class HelperGenerator implements Generator {
 
     @Override
     public String getClassName() {
-        return null;
+        return Helper.class.getName();
+    }
+
+    @Override
+    public Class<?> getNeighbour() {
+        return Helper.class;
     }
 }
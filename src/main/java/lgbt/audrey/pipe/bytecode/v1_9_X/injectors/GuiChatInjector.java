@@ -1,11 +1,11 @@
 package lgbt.audrey.pipe.bytecode.v1_9_X.injectors;
 
 import lgbt.audrey.pipe.bytecode.Injector;
+import lgbt.audrey.pipe.bytecode.InsnIndex;
 import lgbt.audrey.pipe.bytecode.map.MappedClass;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.*;
 
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -17,31 +17,21 @@ public class GuiChatInjector extends Injector {
         super(classToInject);
     }
 
+    @Override
+    protected boolean isTargetMethod(final String name, final String desc) {
+        return name.equals("a") && desc.equals("(CI)V");
+    }
+
     @Override
     @SuppressWarnings("unchecked")
-    protected void inject(final ClassReader classReader, final ClassNode classNode) {
+    protected void inject(final ClassReader classReader, final ClassNode classNode, final InsnIndex index) {
         // TODO: Fix
         for(final MethodNode m : (List<MethodNode>) classNode.methods) {
             if(m.name.equals("a") && m.desc.equals("(CI)V")) {
                 final InsnList list = new InsnList();
                 list.add(new VarInsnNode(ALOAD, 3));
                 list.add(new MethodInsnNode(INVOKESTATIC, "lgbt/audrey/pipe/util/helpers/ChatHelper", "handle", "(Ljava/lang/String;)V", false));
-                AbstractInsnNode insn = null;
-                final Iterator<AbstractInsnNode> i = m.instructions.iterator();
-
-                while(i.hasNext()) {
-                    final AbstractInsnNode n = i.next();
-                    if(n instanceof MethodInsnNode) {
-                        final MethodInsnNode l = (MethodInsnNode) n;
-                        if(l.name.equals("f") && l.desc.equals("(Ljava/lang/String;)V")) {
-                            insn = n.getPrevious().getPrevious();
-                            break;
-                        }
-                    }
-                }
-                if(insn == null) {
-                    throw new IllegalStateException("insn was null?!");
-                }
+                final AbstractInsnNode insn = index.invocation(m, null, "f", "(Ljava/lang/String;)V").previous(2).get();
 
                 m.instructions.remove(insn.getNext().getNext());
                 m.instructions.remove(insn.getNext());
@@ -1,6 +1,7 @@
 package lgbt.audrey.pipe.bytecode.v1_9_X.injectors;
 
 import lgbt.audrey.pipe.bytecode.Injector;
+import lgbt.audrey.pipe.bytecode.InsnIndex;
 import lgbt.audrey.pipe.event.events.Render2D;
 import lgbt.audrey.pipe.bytecode.Injector;
 import lgbt.audrey.pipe.bytecode.map.MappedClass;
@@ -9,7 +10,6 @@ import lgbt.audrey.pipe.event.events.Render2D;
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.tree.*;
 
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -23,9 +23,15 @@ public class GuiIngameInjector extends Injector {
         super(classToInject);
     }
 
+    @Override
+    protected boolean isTargetMethod(final String name, final String desc) {
+        final MethodDef renderGameOverlay = getClassToInject().getMethod("renderGameOverlay").get();
+        return name.equals(renderGameOverlay.getName()) && desc.equals(renderGameOverlay.getDesc());
+    }
+
     @Override
     @SuppressWarnings("unchecked")
-    protected void inject(final ClassReader cr, final ClassNode cn) {
+    protected void inject(final ClassReader cr, final ClassNode cn, final InsnIndex index) {
         final MethodDef renderGameOverlay = getClassToInject().getMethod("renderGameOverlay").get();
 
         ((List<MethodNode>) cn.methods).stream()
@@ -36,19 +42,8 @@ public class GuiIngameInjector extends Injector {
                     list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/Pipe", "getEventBus", "()Llgbt/audrey/pipe/event/EventBus;", false));
                     list.add(new FieldInsnNode(GETSTATIC, "lgbt/audrey/pipe/event/events/Render2D", "instance", "Llgbt/audrey/pipe/event/events/Render2D;"));
                     list.add(new MethodInsnNode(INVOKEINTERFACE, "lgbt/audrey/pipe/event/EventBus", "push", "(Ljava/lang/Object;)Ljava/lang/Object;", true));
-                    final Iterator<AbstractInsnNode> i = m.instructions.iterator();
-                    AbstractInsnNode node = null;
-                    while(i.hasNext()) {
-                        final AbstractInsnNode n = i.next();
-                        if(n.getOpcode() == RETURN) {
-                            node = n;
-                            break;
-                        }
-                    }
-                    if(node == null) {
-                        throw new IllegalStateException("RETURN insn node was null?!");
-                    }
-                    m.instructions.insertBefore(node, list);
+                    list.add(new InsnNode(POP));
+                    m.instructions.insertBefore(index.firstReturn(m).get(), guard("Render2D", list));
                 });
     }
 }
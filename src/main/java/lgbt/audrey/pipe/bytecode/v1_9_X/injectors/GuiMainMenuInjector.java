@@ -1,16 +1,15 @@
 package lgbt.audrey.pipe.bytecode.v1_9_X.injectors;
 
 import lgbt.audrey.pipe.bytecode.Injector;
+import lgbt.audrey.pipe.bytecode.InsnIndex;
 import lgbt.audrey.pipe.bytecode.map.ClassMap;
 import lgbt.audrey.pipe.bytecode.map.MappedClass;
 import lgbt.audrey.pipe.bytecode.map.MappedClass.MethodDef;
 import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.tree.AbstractInsnNode;
 import org.objectweb.asm.tree.ClassNode;
 import org.objectweb.asm.tree.LdcInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -24,25 +23,26 @@ public class GuiMainMenuInjector extends Injector {
         super(classToInject);
     }
 
+    @Override
+    protected boolean isTargetMethod(final String name, final String desc) {
+        final MethodDef drawScreen = ClassMap.getClassByName("GuiScreen").getMethod("drawScreen").get();
+        return name.equals(drawScreen.getName()) && desc.equals(drawScreen.getDesc());
+    }
+
     @Override
     @SuppressWarnings("unchecked")
-    protected void inject(final ClassReader classReader, final ClassNode classNode) {
+    protected void inject(final ClassReader classReader, final ClassNode classNode, final InsnIndex index) {
         final MethodDef drawScreen = ClassMap.getClassByName("GuiScreen").getMethod("drawScreen").get();
 
         for(final MethodNode m : (List<MethodNode>)classNode.methods) {
             if(m.name.equals(drawScreen.getName()) && m.desc.equals(drawScreen.getDesc())) {
-                final Iterator<AbstractInsnNode> i = m.instructions.iterator();
-                while(i.hasNext()) {
-                    final AbstractInsnNode insn = i.next();
-                    if(insn instanceof LdcInsnNode) {
-                        final LdcInsnNode ldc = (LdcInsnNode) insn;
-                        if(ldc.cst instanceof String) {
-                            String cst = (String) ldc.cst;
-                            if(cst.contains("Minecraft")) {
-                                cst += " (Pipe)"/* v\247a" + Pipe.getVersion() + "\247r)";*/;
-                            }
-                            ldc.cst = cst;
+                for(final LdcInsnNode ldc : index.constants(m)) {
+                    if(ldc.cst instanceof String) {
+                        String cst = (String) ldc.cst;
+                        if(cst.contains("Minecraft")) {
+                            cst += " (Pipe)"/* v\247a" + Pipe.getVersion() + "\247r)";*/;
                         }
+                        ldc.cst = cst;
                     }
                 }
             }
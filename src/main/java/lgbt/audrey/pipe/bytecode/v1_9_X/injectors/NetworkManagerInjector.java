@@ -1,6 +1,7 @@
 package lgbt.audrey.pipe.bytecode.v1_9_X.injectors;
 
 import lgbt.audrey.pipe.bytecode.Injector;
+import lgbt.audrey.pipe.bytecode.InsnIndex;
 import lgbt.audrey.pipe.bytecode.map.MappedClass;
 import lgbt.audrey.pipe.bytecode.map.MappedClass.MethodDef;
 import org.objectweb.asm.ClassReader;
@@ -17,9 +18,17 @@ public class NetworkManagerInjector extends Injector {
         super(classToInject);
     }
 
+    @Override
+    protected boolean isTargetMethod(final String name, final String desc) {
+        final MethodDef sendPacket = getClassToInject().getMethod("sendPacket").get();
+        final MethodDef channelRead0 = getClassToInject().getMethod("channelRead0").get();
+        return name.equals(sendPacket.getName()) && desc.contains(sendPacket.getDesc())
+                || name.equals(channelRead0.getName()) && desc.contains(channelRead0.getDesc());
+    }
+
     @Override
     @SuppressWarnings("unchecked")
-    protected void inject(final ClassReader classReader, final ClassNode classNode) {
+    protected void inject(final ClassReader classReader, final ClassNode classNode, final InsnIndex index) {
         final MethodDef sendPacket = getClassToInject().getMethod("sendPacket").get();
         final MethodDef channelRead0 = getClassToInject().getMethod("channelRead0").get();
 
@@ -31,18 +40,19 @@ public class NetworkManagerInjector extends Injector {
                     final InsnList list = new InsnList();
                     list.add(new MethodInsnNode(INVOKESTATIC, "lgbt/audrey/pipe/Pipe", "getInstance", "()Llgbt/audrey/pipe/Pipe;", false));
                     list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/Pipe", "getEventBus", "()Llgbt/audrey/pipe/event/EventBus;", false));
-                    list.add(new TypeInsnNode(NEW, "lgbt/audrey/pipe/event/events/PacketSend"));
-                    list.add(new InsnNode(DUP));
                     list.add(new VarInsnNode(ALOAD, 1));
-                    list.add(new MethodInsnNode(INVOKESPECIAL, "lgbt/audrey/pipe/event/events/PacketSend", "<init>", "(Ljava/lang/Object;)V", false));
+                    list.add(new MethodInsnNode(INVOKESTATIC, "lgbt/audrey/pipe/event/events/PacketSend", "obtain", "(Ljava/lang/Object;)Llgbt/audrey/pipe/event/events/PacketSend;", false));
                     list.add(new MethodInsnNode(INVOKEINTERFACE, "lgbt/audrey/pipe/event/EventBus", "push", "(Ljava/lang/Object;)Ljava/lang/Object;", true));
                     list.add(new TypeInsnNode(CHECKCAST, "lgbt/audrey/pipe/event/events/PacketSend"));
+                    list.add(new InsnNode(DUP));
                     list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/event/events/PacketSend", "isCancelled", "()Z", false));
+                    list.add(new InsnNode(SWAP));
+                    list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/event/events/PacketSend", "release", "()V", false));
                     list.add(new JumpInsnNode(IFEQ, l));
                     list.add(new InsnNode(RETURN));
                     list.add(l);
                     //list.add(new InsnNode(POP));
-                    m.instructions.insert(list);
+                    m.instructions.insert(guardCancellable("PacketSend", list, returning()));
                 });
         ((List<MethodNode>) classNode.methods).stream()
                 .filter(m -> m.name.equals(channelRead0.getName()) &&
@@ -54,18 +64,19 @@ public class NetworkManagerInjector extends Injector {
                     list.add(new MethodInsnNode(INVOKESTATIC,
                             "lgbt/audrey/pipe/Pipe", "getInstance", "()Llgbt/audrey/pipe/Pipe;", false));
                     list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/Pipe", "getEventBus", "()Llgbt/audrey/pipe/event/EventBus;", false));
-                    list.add(new TypeInsnNode(NEW, "lgbt/audrey/pipe/event/events/PacketReceive"));
-                    list.add(new InsnNode(DUP));
                     list.add(new VarInsnNode(ALOAD, 2));
-                    list.add(new MethodInsnNode(INVOKESPECIAL, "lgbt/audrey/pipe/event/events/PacketReceive", "<init>", "(Ljava/lang/Object;)V", false));
+                    list.add(new MethodInsnNode(INVOKESTATIC, "lgbt/audrey/pipe/event/events/PacketReceive", "obtain", "(Ljava/lang/Object;)Llgbt/audrey/pipe/event/events/PacketReceive;", false));
                     list.add(new MethodInsnNode(INVOKEINTERFACE, "lgbt/audrey/pipe/event/EventBus", "push", "(Ljava/lang/Object;)Ljava/lang/Object;", true));
                     list.add(new TypeInsnNode(CHECKCAST, "lgbt/audrey/pipe/event/events/PacketReceive"));
+                    list.add(new InsnNode(DUP));
                     list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/event/events/PacketReceive", "isCancelled", "()Z", false));
+                    list.add(new InsnNode(SWAP));
+                    list.add(new MethodInsnNode(INVOKEVIRTUAL, "lgbt/audrey/pipe/event/events/PacketReceive", "release", "()V", false));
                     list.add(new JumpInsnNode(IFEQ, l));
                     list.add(new InsnNode(RETURN));
                     list.add(l);
                     //list.add(new InsnNode(POP));
-                    m.instructions.insert(list);
+                    m.instructions.insert(guard("PacketReceive", list));
                 });
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package lgbt.audrey.pipe.bytecode.v1_9_X.injectors;
 
 import lgbt.audrey.pipe.bytecode.Injector;
+import lgbt.audrey.pipe.bytecode.InsnIndex;
 import lgbt.audrey.pipe.bytecode.map.MappedClass;
 import lgbt.audrey.pipe.bytecode.map.MappedClass.MethodDef;
 import org.objectweb.asm.ClassReader;
@@ -17,9 +18,15 @@ public class PacketBufferInjector extends Injector {
         super(classToInject);
     }
 
+    @Override
+    protected boolean isTargetMethod(final String name, final String desc) {
+        final MethodDef readStringFromBuffer = getClassToInject().getMethod("readStringFromBuffer").get();
+        return name.equals(readStringFromBuffer.getName()) && desc.contains(readStringFromBuffer.getDesc());
+    }
+
     @Override
     @SuppressWarnings("unchecked")
-    protected void inject(final ClassReader classReader, final ClassNode classNode) {
+    protected void inject(final ClassReader classReader, final ClassNode classNode, final InsnIndex index) {
         final MethodDef readStringFromBuffer = getClassToInject().getMethod("readStringFromBuffer").get();
         ((List<MethodNode>) classNode.methods).stream()
                 .filter(m -> m.name.equals(readStringFromBuffer.getName()) &&
@@ -36,7 +43,7 @@ public class PacketBufferInjector extends Injector {
                     list.add(new MethodInsnNode(INVOKESPECIAL, "lgbt/audrey/pipe/event/events/PacketBufferStringRead", "<init>", "(Ljava/lang/String;)V", false));
                     list.add(new MethodInsnNode(INVOKEINTERFACE, "lgbt/audrey/pipe/event/EventBus", "push", "(Ljava/lang/Object;)Ljava/lang/Object;", true));
                     list.add(new InsnNode(POP));
-                    m.instructions.insertBefore(m.instructions.getLast().getPrevious(), list);
+                    m.instructions.insertBefore(m.instructions.getLast().getPrevious(), guard("PacketBufferStringRead", list));
                 });
     }
 }
@@ -1,10 +1,18 @@
 package lgbt.audrey.pipe.command.internal;
 
+import lgbt.audrey.pipe.Agent;
 import lgbt.audrey.pipe.Pipe;
+import lgbt.audrey.pipe.bytecode.InjectorReloader;
 import lgbt.audrey.pipe.command.Command;
 import lgbt.audrey.pipe.command.CommandExecutor;
+import lgbt.audrey.pipe.event.EventBus;
+import lgbt.audrey.pipe.event.EventLanes;
+import lgbt.audrey.pipe.event.LatencyHistogram;
+import lgbt.audrey.pipe.event.PipeEventBus;
+import lgbt.audrey.pipe.event.Registration;
 import lgbt.audrey.pipe.util.helpers.ChatHelper;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -14,6 +22,11 @@ import java.util.stream.Collectors;
  * @since 1/26/16.
  */
 public class CommandDebug implements CommandExecutor {
+    /**
+     * How many listeners <tt>--profile</tt> lists.
+     */
+    private static final int PROFILE_ENTRIES = 10;
+
     @Override
     public boolean executeCommand(final Command command, final String commandString, final String[] args) {
         final List<String> tokens = tokenize(commandString
@@ -34,13 +47,117 @@ public class CommandDebug implements CommandExecutor {
                     Pipe.getInstance().setInDebugMode(!Pipe.getInstance().isInDebugMode());
                     ChatHelper.log("Debug has been " + (Pipe.getInstance().isInDebugMode() ? "enabled" : "disabled") + '!');
                     break;
+                case "--lanes":
+                    logLanes();
+                    break;
+                case "--profile":
+                    profile(tokens.size() > 1 ? tokens.get(1) : "");
+                    break;
+                case "--inject":
+                    inject(tokens.size() > 1 ? tokens.get(1) : "");
+                    break;
                 default:
                     ChatHelper.warn("Invalid debug flag: " + tokens.get(0));
                     break;
             }
         } else {
-            ChatHelper.log("Usage: ", "--<enable|disable|toggle|screen>");
+            ChatHelper.log("Usage: ", "--<enable|disable|toggle|lanes>", "--profile [start|stop|reset]",
+                    "--inject [reload|revert|apply]");
         }
         return true;
     }
+
+    private static void profile(final String action) {
+        final EventBus bus = Pipe.eventBus();
+        if(!(bus instanceof PipeEventBus)) {
+            ChatHelper.warn("Profiling is only supported by the default event bus.");
+            return;
+        }
+        final PipeEventBus pipeBus = (PipeEventBus) bus;
+        switch(action) {
+            case "start":
+                pipeBus.setProfiling(true);
+                ChatHelper.log("Listener profiling started.");
+                return;
+            case "stop":
+                logProfile(pipeBus);
+                pipeBus.setProfiling(false);
+                ChatHelper.log("Listener profiling stopped.");
+                return;
+            case "reset":
+                pipeBus.getRegistrations().forEach(r -> r.getHistogram().reset());
+                ChatHelper.log("Listener profile reset.");
+                return;
+            case "":
+                if(!pipeBus.isProfiling()) {
+                    pipeBus.setProfiling(true);
+                    ChatHelper.log("Listener profiling started; run this again to see the results.");
+                    return;
+                }
+                logProfile(pipeBus);
+                return;
+            default:
+                ChatHelper.warn("Invalid profile action: " + action);
+        }
+    }
+
+    private static void inject(final String action) {
+        final InjectorReloader reloader = Agent.getReloader();
+        if(reloader == null) {
+            ChatHelper.warn("Pipe wasn't started as an agent; injectors can't be reloaded.");
+            return;
+        }
+        switch(action) {
+            case "reload":
+                Agent.reload();
+                break;
+            case "revert":
+                reloader.revert();
+                break;
+            case "apply":
+                reloader.retransform();
+                break;
+            case "":
+                break;
+            default:
+                ChatHelper.warn("Invalid inject action: " + action);
+                return;
+        }
+        final LatencyHistogram passes = reloader.getPasses();
+        ChatHelper.log(String.format("Injectors %s; %d retransform passes, last %.1f ms, mean %.1f ms, max %.1f ms",
+                reloader.getTransformer().isEnabled() ? "applied" : "reverted", passes.getCount(),
+                reloader.getLastPassNanos() / 1e6, passes.getMean() / 1e6, passes.getMax() / 1e6));
+    }
+
+    private static void logProfile(final PipeEventBus bus) {
+        final List<Registration> top = bus.getRegistrations().stream()
+                .filter(r -> r.getHistogram().getCount() > 0 || r.getFailures() > 0)
+                .sorted(Comparator.comparingLong((Registration r) -> r.getHistogram().getTotal()).reversed())
+                .limit(PROFILE_ENTRIES).collect(Collectors.toList());
+        if(top.isEmpty()) {
+            ChatHelper.log("No listener samples yet.");
+            return;
+        }
+        ChatHelper.log("Slowest listeners (sampled, in microseconds):");
+        for(final Registration r : top) {
+            final LatencyHistogram h = r.getHistogram();
+            ChatHelper.log(String.format("%s: mean %.1f, p99 %.1f, max %.1f, %d samples, %d errors%s", r.describe(),
+                    h.getMean() / 1000D, h.getPercentile(99) / 1000D, h.getMax() / 1000D, h.getCount(),
+                    r.getFailures(), r.isQuarantined() ? " (quarantined)" : ""));
+        }
+    }
+
+    private static void logLanes() {
+        final EventBus bus = Pipe.eventBus();
+        final EventLanes lanes = bus instanceof PipeEventBus ? ((PipeEventBus) bus).getLanes() : null;
+        if(lanes == null) {
+            ChatHelper.log("No asynchronous listeners have been registered.");
+            return;
+        }
+        ChatHelper.log("Event lanes (capacity " + lanes.getCapacity() + ", " + lanes.getBackpressure() + "):");
+        for(int i = 0; i < lanes.getLaneCount(); i++) {
+            ChatHelper.log("#" + i + ": depth " + lanes.getDepth(i) + ", published " + lanes.getPublished(i)
+                    + ", dropped " + lanes.getDropped(i));
+        }
+    }
 }
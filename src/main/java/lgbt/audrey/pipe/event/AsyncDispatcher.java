@@ -0,0 +1,68 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.util.Cancellable;
+
+import java.util.Arrays;
+
+/**
+ * A {@link Dispatcher} for event types that have {@link Delivery#ASYNC}
+ * listeners. The synchronous listeners run first, through a generated
+ * dispatcher; after that, the event is copied if it is {@link Copyable} and
+ * queued on the type's {@link EventLanes lane} for the asynchronous ones.
+ * Asynchronous listeners only get cancelled events if they
+ * {@link Listener#receivesCancelled()}.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+final class AsyncDispatcher extends Dispatcher {
+    /**
+     * The dispatcher for the synchronous and parallel listeners, or null if
+     * there are none.
+     */
+    private final Dispatcher sync;
+
+    private final Registration[] async;
+
+    /**
+     * The asynchronous listeners that receive cancelled events.
+     */
+    private final Registration[] asyncCancelled;
+
+    private final EventLanes lanes;
+    private final int lane;
+
+    /**
+     * @param registrations All listeners for the type, in priority order
+     * @param sync          The dispatcher for the synchronous and parallel
+     *                      listeners, or null
+     * @param async         The asynchronous listeners, in priority order
+     * @param lanes         The lanes to queue events on
+     * @param type          The event type
+     */
+    AsyncDispatcher(final Registration[] registrations, final Dispatcher sync, final Registration[] async,
+                    final EventLanes lanes, final Class<?> type) {
+        super(registrations);
+        this.sync = sync;
+        this.async = async;
+        asyncCancelled = Arrays.stream(async).filter(r -> r.getListener().receivesCancelled())
+                .toArray(Registration[]::new);
+        this.lanes = lanes;
+        lane = lanes.laneFor(type);
+    }
+
+    @Override
+    public void dispatch(final Object event) {
+        if(sync != null) {
+            sync.dispatch(event);
+        }
+        Registration[] targets = async;
+        if(event instanceof Cancellable && ((Cancellable) event).isCancelled()) {
+            if(asyncCancelled.length == 0) {
+                return;
+            }
+            targets = asyncCancelled;
+        }
+        lanes.publish(lane, event instanceof Copyable ? ((Copyable<?>) event).copy() : event, targets);
+    }
+}
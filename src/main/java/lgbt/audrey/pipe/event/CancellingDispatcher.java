@@ -0,0 +1,38 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.util.Cancellable;
+
+/**
+ * A {@link Dispatcher} for cancellable event types whose
+ * {@link HookPolicy} is {@link HookPolicy#ALWAYS_CANCEL}. Events pushed by
+ * code other than the hooks are cancelled straight away, so only the
+ * listeners that {@link Listener#receivesCancelled()} ever see them.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+final class CancellingDispatcher extends Dispatcher {
+    /**
+     * The dispatcher for the listeners that receive cancelled events, or
+     * null if there are none.
+     */
+    private final Dispatcher receivers;
+
+    /**
+     * @param registrations All listeners for the type, in priority order
+     * @param receivers     The dispatcher for the listeners that receive
+     *                      cancelled events, or null
+     */
+    CancellingDispatcher(final Registration[] registrations, final Dispatcher receivers) {
+        super(registrations);
+        this.receivers = receivers;
+    }
+
+    @Override
+    public void dispatch(final Object event) {
+        ((Cancellable) event).setCancelled(true);
+        if(receivers != null) {
+            receivers.dispatch(event);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package lgbt.audrey.pipe.event;
+
+import lombok.NonNull;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link Listener} that forwards to a {@link Consumer}. Created through
+ * {@link Listener#of(Class, Consumer)}.
+ *
+ * @param <T> The type of event to listen for.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+final class ConsumerListener<T> extends Listener<T> {
+    private final Priority priority;
+    private final boolean receiveCancelled;
+    private final Delivery delivery;
+    private final Consumer<? super T> consumer;
+
+    ConsumerListener(@NonNull final Class<T> type, @NonNull final Priority priority, final boolean receiveCancelled,
+                     @NonNull final Delivery delivery, @NonNull final Consumer<? super T> consumer) {
+        super(type);
+        this.priority = priority;
+        this.receiveCancelled = receiveCancelled;
+        this.delivery = delivery;
+        this.consumer = consumer;
+    }
+
+    @Override
+    public void event(final T event) {
+        consumer.accept(event);
+    }
+
+    @Override
+    public Priority getPriority() {
+        return priority;
+    }
+
+    @Override
+    public boolean receivesCancelled() {
+        return receiveCancelled;
+    }
+
+    @Override
+    public Delivery getDelivery() {
+        return delivery;
+    }
+
+    @Override
+    public String toString() {
+        // Lambdas are named after the class that declares them, plus a
+        // suffix that only gets in the way
+        final String name = consumer.getClass().getName();
+        final int lambda = name.indexOf("$$Lambda");
+        return lambda < 0 ? name : name.substring(0, lambda) + " (lambda)";
+    }
+
+    Consumer<? super T> getConsumer() {
+        return consumer;
+    }
+}
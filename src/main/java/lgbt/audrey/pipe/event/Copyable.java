@@ -0,0 +1,22 @@
+package lgbt.audrey.pipe.event;
+
+/**
+ * An event that can be copied. Events that get reused after being pushed,
+ * such as the ones handed out by an {@link EventPool}, must implement this
+ * so that {@link Delivery#ASYNC} listeners get a snapshot of the event
+ * instead of an instance that is being overwritten under them. Events that
+ * don't implement it are handed to asynchronous listeners as-is.
+ *
+ * @param <T> The type of the event.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public interface Copyable<T> {
+    /**
+     * Creates a copy of this event, including whether it is cancelled.
+     *
+     * @return A new event with the same state as this one
+     */
+    T copy();
+}
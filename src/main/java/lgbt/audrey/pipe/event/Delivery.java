@@ -0,0 +1,39 @@
+package lgbt.audrey.pipe.event;
+
+/**
+ * How a {@link Listener} is handed the events it listens for.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public enum Delivery {
+    /**
+     * The listener runs on the thread that pushed the event, before
+     * {@link EventBus#push(Object)} returns. The only mode in which a
+     * listener can cancel or modify the event for the code that pushed it.
+     */
+    SYNC,
+
+    /**
+     * The listener runs later, on one of the bus's worker threads, with its
+     * own copy of the event if the event is {@link Copyable}. For listeners
+     * that only observe, such as loggers and recorders, so that they don't
+     * add to frame time or network latency. Cancelling or modifying the
+     * event has no effect, and events may be dropped if the workers fall
+     * behind; see {@link EventLanes}.
+     */
+    ASYNC,
+
+    /**
+     * The listener runs on a worker thread, at the same time as the other
+     * parallel listeners for the event and the synchronous ones, but always
+     * finishes before {@link EventBus#push(Object)} returns. For thread-safe
+     * listeners that don't depend on running before or after any other
+     * listener, such as independent per-tick work, so that it is spread over
+     * spare cores instead of adding up on the game thread. Priorities only
+     * order parallel listeners among themselves loosely, and they must not
+     * cancel the event; for {@link lgbt.audrey.pipe.util.Cancellable} events
+     * they run as if they were {@link #SYNC}.
+     */
+    PARALLEL
+}
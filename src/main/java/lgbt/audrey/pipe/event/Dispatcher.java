@@ -0,0 +1,84 @@
+package lgbt.audrey.pipe.event;
+
+/**
+ * Delivers events of a single type to a fixed, ordered set of
+ * {@link Listener}s. Instances are created by {@link PipeEventBus} whenever
+ * the listeners for a type change, and are never modified afterwards.
+ * <p>
+ * The implementations that are normally used are generated at runtime by
+ * {@link DispatcherGenerator}. Exceptions thrown by listeners are handed to
+ * {@link #failed(int, Throwable)} instead of being propagated, so that a
+ * broken listener can't unwind the game code that pushed the event.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public abstract class Dispatcher {
+    /**
+     * The listeners this dispatcher delivers to, in priority order.
+     */
+    private final Listener<?>[] listeners;
+
+    /**
+     * The registrations of {@link #listeners}, in the same order. Set right
+     * after construction, before the dispatcher is published.
+     */
+    private Registration[] registrations;
+
+    protected Dispatcher(final Listener<?>[] listeners) {
+        this.listeners = listeners;
+    }
+
+    Dispatcher(final Registration[] registrations) {
+        this(listenersOf(registrations));
+        this.registrations = registrations;
+    }
+
+    /**
+     * Delivers the given event to every listener in order. If the event is
+     * {@link lgbt.audrey.pipe.util.Cancellable} and gets cancelled, the
+     * remaining listeners are skipped unless they
+     * {@link Listener#receivesCancelled()}.
+     *
+     * @param event The event to deliver. Must be of the type this dispatcher
+     *              was generated for.
+     */
+    public abstract void dispatch(Object event);
+
+    /**
+     * Returns the listeners this dispatcher delivers to. The returned array
+     * must not be modified.
+     *
+     * @return The listeners this dispatcher delivers to
+     */
+    public final Listener<?>[] getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Accounts for a listener having thrown instead of returning normally.
+     *
+     * @param index The index of the listener in {@link #getListeners()}
+     * @param t     What the listener threw
+     */
+    protected final void failed(final int index, final Throwable t) {
+        registrations[index].failed(t);
+    }
+
+    final Registration[] getRegistrations() {
+        return registrations;
+    }
+
+    final Dispatcher bind(final Registration[] registrations) {
+        this.registrations = registrations;
+        return this;
+    }
+
+    static Listener<?>[] listenersOf(final Registration[] registrations) {
+        final Listener<?>[] listeners = new Listener<?>[registrations.length];
+        for(int i = 0; i < registrations.length; i++) {
+            listeners[i] = registrations[i].getListener();
+        }
+        return listeners;
+    }
+}
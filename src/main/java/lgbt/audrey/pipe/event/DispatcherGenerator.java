@@ -0,0 +1,215 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.util.Cancellable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Generates a {@link Dispatcher} subclass for a single event type and a fixed
+ * set of listeners.
+ * <p>
+ * Every listener gets its own field and its own call site in the generated
+ * <tt>dispatch</tt> method. Calling through
+ * {@link Listener#event(Object)} in one shared loop means that one call site
+ * sees every anonymous listener class in the client, so the JIT gives up on
+ * inlining it. In a generated dispatcher each call site only ever sees the
+ * one listener it was generated for, so the call is inlined straight through
+ * the bridge method into the listener's <tt>event</tt> body. The listener
+ * classes themselves can't be named from here: they are package-private
+ * anonymous classes, usually living in a plugin's class loader.
+ * <p>
+ * Listeners made with {@link Listener#of(Class, Consumer)} skip the listener
+ * entirely: their consumer is stored in the field instead, and the generated
+ * code calls {@link Consumer#accept(Object)} on it directly, so the lambda
+ * body is what ends up being inlined.
+ * <p>
+ * Every call is wrapped in its own exception handler that reports to
+ * {@link Dispatcher#failed(int, Throwable)}, which costs nothing until a
+ * listener actually throws.
+ * <p>
+ * If the event type is {@link Cancellable}, the cancellation check is inlined
+ * before every listener but the first, unless that listener
+ * {@link Listener#receivesCancelled()}. When no later listener receives
+ * cancelled events, a cancelled event returns straight away.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+final class DispatcherGenerator implements Opcodes {
+    private static final String DISPATCHER = Type.getInternalName(Dispatcher.class);
+    private static final String LISTENER = Type.getInternalName(Listener.class);
+    private static final String LISTENER_DESC = Type.getDescriptor(Listener.class);
+    private static final String CONSUMER = Type.getInternalName(Consumer.class);
+    private static final String CONSUMER_DESC = Type.getDescriptor(Consumer.class);
+    private static final String CANCELLABLE = Type.getInternalName(Cancellable.class);
+    private static final String CONSTRUCTOR_DESC = "([" + LISTENER_DESC + "[Ljava/lang/Object;)V";
+
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    private DispatcherGenerator() {
+    }
+
+    /**
+     * Generates, loads, and instantiates a dispatcher.
+     *
+     * @param type          The event type the listeners are registered for
+     * @param registrations The listeners, in dispatch order
+     * @return A new dispatcher for the listeners
+     */
+    static Dispatcher generate(final Class<?> type, final Registration[] registrations) {
+        final Listener<?>[] listeners = Dispatcher.listenersOf(registrations);
+        final String name = DISPATCHER + "$$" + type.getSimpleName() + '$' + counter.incrementAndGet();
+        final Object[] targets = new Object[listeners.length];
+        final boolean[] consumers = new boolean[listeners.length];
+        final boolean[] receiveCancelled = new boolean[listeners.length];
+        for(int i = 0; i < listeners.length; i++) {
+            receiveCancelled[i] = listeners[i].receivesCancelled();
+            if(listeners[i] instanceof ConsumerListener) {
+                targets[i] = ((ConsumerListener<?>) listeners[i]).getConsumer();
+                consumers[i] = true;
+            } else {
+                targets[i] = listeners[i];
+            }
+        }
+        final byte[] bytes = generate(name, Cancellable.class.isAssignableFrom(type), consumers, receiveCancelled);
+        final Class<?> clazz = new DispatcherLoader(DispatcherGenerator.class.getClassLoader()).define(name, bytes);
+        try {
+            return ((Dispatcher) clazz.getConstructor(Listener[].class, Object[].class).newInstance(listeners, targets))
+                    .bind(registrations);
+        } catch(InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+            throw new IllegalStateException("Couldn't instantiate dispatcher for " + type.getName(), e);
+        }
+    }
+
+    /**
+     * @param consumers        For each listener, whether its target is a
+     *                         {@link Consumer} rather than the listener itself
+     * @param receiveCancelled For each listener, whether it runs even if the
+     *                         event has been cancelled
+     */
+    private static byte[] generate(final String name, final boolean cancellable, final boolean[] consumers,
+                                   final boolean[] receiveCancelled) {
+        final int count = consumers.length;
+        final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC, name, null, DISPATCHER, null);
+        for(int i = 0; i < count; i++) {
+            cw.visitField(ACC_PRIVATE | ACC_FINAL, "l" + i, consumers[i] ? CONSUMER_DESC : LISTENER_DESC, null, null).visitEnd();
+        }
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", CONSTRUCTOR_DESC, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitMethodInsn(INVOKESPECIAL, DISPATCHER, "<init>", "([" + LISTENER_DESC + ")V", false);
+        for(int i = 0; i < count; i++) {
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitVarInsn(ALOAD, 2);
+            pushInt(mv, i);
+            mv.visitInsn(AALOAD);
+            mv.visitTypeInsn(CHECKCAST, consumers[i] ? CONSUMER : LISTENER);
+            mv.visitFieldInsn(PUTFIELD, name, "l" + i, consumers[i] ? CONSUMER_DESC : LISTENER_DESC);
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(ACC_PUBLIC | ACC_FINAL, "dispatch", "(Ljava/lang/Object;)V", null, null);
+        mv.visitCode();
+        if(cancellable) {
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, CANCELLABLE);
+            mv.visitVarInsn(ASTORE, 2);
+        }
+        // lastReceiver is the index of the last listener that runs for
+        // cancelled events; past it, a cancelled event can just return.
+        int lastReceiver = -1;
+        for(int i = 0; i < count; i++) {
+            if(receiveCancelled[i]) {
+                lastReceiver = i;
+            }
+        }
+        for(int i = 0; i < count; i++) {
+            final Label next = new Label();
+            final boolean check = cancellable && i > 0 && !receiveCancelled[i];
+            if(check) {
+                mv.visitVarInsn(ALOAD, 2);
+                mv.visitMethodInsn(INVOKEVIRTUAL, CANCELLABLE, "isCancelled", "()Z", false);
+                if(i > lastReceiver) {
+                    final Label call = new Label();
+                    mv.visitJumpInsn(IFEQ, call);
+                    mv.visitInsn(RETURN);
+                    mv.visitLabel(call);
+                } else {
+                    mv.visitJumpInsn(IFNE, next);
+                }
+            }
+            final Label start = new Label();
+            final Label end = new Label();
+            final Label handler = new Label();
+            mv.visitTryCatchBlock(start, end, handler, "java/lang/Throwable");
+            mv.visitLabel(start);
+            mv.visitVarInsn(ALOAD, 0);
+            if(consumers[i]) {
+                mv.visitFieldInsn(GETFIELD, name, "l" + i, CONSUMER_DESC);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitMethodInsn(INVOKEINTERFACE, CONSUMER, "accept", "(Ljava/lang/Object;)V", true);
+            } else {
+                mv.visitFieldInsn(GETFIELD, name, "l" + i, LISTENER_DESC);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitMethodInsn(INVOKEVIRTUAL, LISTENER, "event", "(Ljava/lang/Object;)V", false);
+            }
+            mv.visitLabel(end);
+            final Label after = new Label();
+            mv.visitJumpInsn(GOTO, after);
+            mv.visitLabel(handler);
+            mv.visitVarInsn(ASTORE, 3);
+            mv.visitVarInsn(ALOAD, 0);
+            pushInt(mv, i);
+            mv.visitVarInsn(ALOAD, 3);
+            mv.visitMethodInsn(INVOKEVIRTUAL, DISPATCHER, "failed", "(ILjava/lang/Throwable;)V", false);
+            mv.visitLabel(after);
+            if(check) {
+                mv.visitLabel(next);
+            }
+        }
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void pushInt(final MethodVisitor mv, final int i) {
+        if(i <= 5) {
+            mv.visitInsn(ICONST_0 + i);
+        } else if(i <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, i);
+        } else if(i <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, i);
+        } else {
+            mv.visitLdcInsn(i);
+        }
+    }
+
+    /**
+     * One loader per generated class, so that a dispatcher can be unloaded as
+     * soon as the bus stops referencing it.
+     */
+    private static final class DispatcherLoader extends ClassLoader {
+        private DispatcherLoader(final ClassLoader parent) {
+            super(parent);
+        }
+
+        private Class<?> define(final String internalName, final byte[] bytes) {
+            return defineClass(internalName.replace('/', '.'), bytes, 0, bytes.length);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package lgbt.audrey.pipe.event;
 
 import lgbt.audrey.pipe.plugin.Plugin;
-import lgbt.audrey.pipe.plugin.Plugin;
+import lgbt.audrey.pipe.util.Cancellable;
+
+import java.util.function.Consumer;
 
 /**
  * An <tt>EventBus</tt> is responsible for exactly what it sounds like:
@@ -15,16 +17,82 @@ import lgbt.audrey.pipe.plugin.Plugin;
 public interface EventBus {
     /**
      * Registers the specified listener with this <tt>EventBus</tt>. If the
-     * supplied listener is already registered, it will be ignored.
+     * supplied listener is already registered to the plugin, it will be
+     * ignored, so a listener never receives the same event twice. Listeners
+     * are compared with {@link Object#equals(Object)}, which for the
+     * listeners created by {@link Listener#of} is identity.
      *
      * @param plugin The plugin the listener is registered to. May not be null
      * @param listener The listener to register. May not be null.
      */
     void register(Plugin plugin, Listener<?> listener);
 
+    /**
+     * Registers a lambda or method reference as a listener for the given
+     * event type. The returned listener is the handle to pass to
+     * {@link #unregister(Plugin, Listener)} in order to remove it again.
+     *
+     * @param plugin The plugin the listener is registered to. May not be null
+     * @param type The type of event to listen for. May not be null.
+     * @param consumer The consumer to invoke for each event. May not be null.
+     * @param <T> The type of event to listen for.
+     * @return The listener that was registered
+     */
+    default <T> Listener<T> register(final Plugin plugin, final Class<T> type, final Consumer<? super T> consumer) {
+        final Listener<T> listener = Listener.of(type, consumer);
+        register(plugin, listener);
+        return listener;
+    }
+
+    /**
+     * Registers a lambda or method reference as a listener for the given
+     * event type, with the given priority. The returned listener is the
+     * handle to pass to {@link #unregister(Plugin, Listener)} in order to
+     * remove it again.
+     *
+     * @param plugin The plugin the listener is registered to. May not be null
+     * @param type The type of event to listen for. May not be null.
+     * @param priority When the listener runs. May not be null.
+     * @param receiveCancelled Whether the listener still runs once the event
+     *                         has been cancelled
+     * @param consumer The consumer to invoke for each event. May not be null.
+     * @param <T> The type of event to listen for.
+     * @return The listener that was registered
+     */
+    default <T> Listener<T> register(final Plugin plugin, final Class<T> type, final Priority priority,
+                                     final boolean receiveCancelled, final Consumer<? super T> consumer) {
+        return register(plugin, type, priority, receiveCancelled, Delivery.SYNC, consumer);
+    }
+
+    /**
+     * Registers a lambda or method reference as a listener for the given
+     * event type, with the given priority and delivery. The returned listener
+     * is the handle to pass to {@link #unregister(Plugin, Listener)} in order
+     * to remove it again.
+     *
+     * @param plugin The plugin the listener is registered to. May not be null
+     * @param type The type of event to listen for. May not be null.
+     * @param priority When the listener runs. May not be null.
+     * @param receiveCancelled Whether the listener still runs once the event
+     *                         has been cancelled
+     * @param delivery Which thread the listener runs on. May not be null.
+     * @param consumer The consumer to invoke for each event. May not be null.
+     * @param <T> The type of event to listen for.
+     * @return The listener that was registered
+     */
+    default <T> Listener<T> register(final Plugin plugin, final Class<T> type, final Priority priority,
+                                     final boolean receiveCancelled, final Delivery delivery,
+                                     final Consumer<? super T> consumer) {
+        final Listener<T> listener = Listener.of(type, priority, receiveCancelled, delivery, consumer);
+        register(plugin, listener);
+        return listener;
+    }
+
     /**
      * Unregisters the specified listener from this <tt>EventBus</tt>. If the
-     * supplied listener is not registered, this method will do nothing.
+     * supplied listener is not registered, this method will do nothing. As a
+     * listener is only ever registered once per plugin, one call always
+     * removes it completely.
      *
      * @param plugin The plugin the listener is registered to. May not be null
      * @param listener The listener to unregister. May not be null.
@@ -39,6 +107,19 @@ public interface EventBus {
      */
     void unregister(Plugin plugin);
 
+    /**
+     * Runs the given task, allowing the bus to put off the work caused by
+     * the listeners it registers and unregisters until the task is done.
+     * Meant for registering many listeners at once, such as while plugins
+     * are enabled. Listeners registered during the task may not receive
+     * events until it ends. The default implementation just runs the task.
+     *
+     * @param task The task to run. May not be null.
+     */
+    default void batch(final Runnable task) {
+        task.run();
+    }
+
     /**
      * Pushes an event across the bus. When this method is invoked, the
      * <tt>EventBus</tt> must push the event out to every valid listener that
@@ -55,6 +136,49 @@ public interface EventBus {
      */
     <T> T push(T event);
 
+    /**
+     * Returns whether pushing an event of exactly the given type would reach
+     * any listener. Implementations that override this must call
+     * {@link Hooks#invalidate(EventBus, Class)} whenever the answer changes,
+     * as the hooks in game code are only enabled while this returns true.
+     * The default implementation always returns true.
+     *
+     * @param type The event type
+     * @return Whether any listener is registered for the type
+     */
+    default boolean hasListeners(final Class<?> type) {
+        return true;
+    }
+
+    /**
+     * Declares what the hooks in game code do for the given cancellable event
+     * type on behalf of the given plugin. Declaring {@link HookPolicy#DISPATCH}
+     * withdraws the plugin's declaration, as does unregistering the plugin.
+     * Implementations must call {@link Hooks#invalidate(EventBus, Class)}
+     * whenever the effective policy of a type changes. The default
+     * implementation doesn't support policies.
+     *
+     * @param plugin The plugin declaring the policy. May not be null.
+     * @param type   The event type. May not be null.
+     * @param policy The policy. May not be null.
+     * @throws UnsupportedOperationException If the bus doesn't support
+     *                                       policies
+     */
+    default void setPolicy(final Plugin plugin, final Class<? extends Cancellable> type, final HookPolicy policy) {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support hook policies");
+    }
+
+    /**
+     * Returns the effective policy for the hooks of the given event type.
+     *
+     * @param type The event type
+     * @return The policy; {@link HookPolicy#DISPATCH} unless declared
+     *         otherwise
+     */
+    default HookPolicy getPolicy(final Class<?> type) {
+        return HookPolicy.DISPATCH;
+    }
+
     /**
      * Clears the list of {@link Listener}s that have been registered with this
      * <tt>EventBus</tt> instance.
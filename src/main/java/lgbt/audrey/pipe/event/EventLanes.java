@@ -0,0 +1,294 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.Pipe;
+import lombok.Getter;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The worker threads that {@link Delivery#ASYNC} listeners run on. Each lane
+ * is one worker thread draining one bounded, lock-free ring buffer. Every
+ * event type always goes to the same lane, so asynchronous listeners still
+ * see the events of a type in the order they were pushed in.
+ * <p>
+ * Lanes are configured with system properties when the first asynchronous
+ * listener is registered:
+ * <ul>
+ *     <li><tt>pipe.events.async.lanes</tt>: The number of lanes. Defaults
+ *     to 1.</li>
+ *     <li><tt>pipe.events.async.capacity</tt>: The number of events each
+ *     lane can hold, rounded up to a power of two. Defaults to 1024.</li>
+ *     <li><tt>pipe.events.async.backpressure</tt>: What pushing an event
+ *     into a full lane does; one of {@link Backpressure}. Defaults to
+ *     <tt>drop</tt>.</li>
+ * </ul>
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class EventLanes {
+    private final Lane[] lanes;
+
+    @Getter
+    private final int capacity;
+
+    @Getter
+    private final Backpressure backpressure;
+
+    EventLanes(final int laneCount, final int capacity, final Backpressure backpressure) {
+        this.capacity = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.backpressure = backpressure;
+        lanes = new Lane[laneCount];
+        for(int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, this.capacity);
+        }
+    }
+
+    /**
+     * Creates lanes as configured by the <tt>pipe.events.async.*</tt> system
+     * properties.
+     *
+     * @return The new lanes, with their workers running
+     */
+    static EventLanes fromProperties() {
+        final int laneCount = Math.max(1, Integer.getInteger("pipe.events.async.lanes", 1));
+        final int capacity = Math.max(2, Integer.getInteger("pipe.events.async.capacity", 1024));
+        final String policy = System.getProperty("pipe.events.async.backpressure", "drop");
+        Backpressure backpressure;
+        try {
+            backpressure = Backpressure.valueOf(policy.toUpperCase(Locale.ROOT));
+        } catch(final IllegalArgumentException e) {
+            Pipe.getLogger().warning("Unknown pipe.events.async.backpressure '" + policy + "', using drop");
+            backpressure = Backpressure.DROP;
+        }
+        final EventLanes lanes = new EventLanes(laneCount, capacity, backpressure);
+        lanes.start();
+        return lanes;
+    }
+
+    private void start() {
+        for(final Lane lane : lanes) {
+            lane.worker.start();
+        }
+    }
+
+    /**
+     * Returns the index of the lane that events of the given type go to.
+     *
+     * @param type The event type
+     * @return The index of the lane for the type
+     */
+    int laneFor(final Class<?> type) {
+        return (System.identityHashCode(type) & Integer.MAX_VALUE) % lanes.length;
+    }
+
+    /**
+     * Queues an event for the given listeners on the given lane.
+     *
+     * @param lane      The lane, as returned by {@link #laneFor(Class)}
+     * @param event     The event. Must not be modified by anyone else after
+     *                  this.
+     * @param listeners The listeners to run for the event
+     */
+    void publish(final int lane, final Object event, final Registration[] listeners) {
+        lanes[lane].publish(event, listeners, backpressure);
+    }
+
+    /**
+     * @return The number of lanes
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * @param lane The index of the lane
+     * @return The number of events currently waiting in the lane
+     */
+    public long getDepth(final int lane) {
+        return lanes[lane].depth();
+    }
+
+    /**
+     * @param lane The index of the lane
+     * @return The number of events queued on the lane so far
+     */
+    public long getPublished(final int lane) {
+        return lanes[lane].published.get();
+    }
+
+    /**
+     * @param lane The index of the lane
+     * @return The number of events that were dropped or coalesced away
+     *         because the lane was full
+     */
+    public long getDropped(final int lane) {
+        return lanes[lane].dropped.get();
+    }
+
+    /**
+     * What pushing an event does when the lane it goes to is full.
+     */
+    public enum Backpressure {
+        /**
+         * Drop the new event. The pushing thread never waits.
+         */
+        DROP,
+
+        /**
+         * Wait for the worker to make room. Never loses events, but lets a
+         * slow asynchronous listener stall the render or network thread.
+         */
+        BLOCK,
+
+        /**
+         * Drop the oldest queued event to make room for the new one, so the
+         * lane always holds the most recent events.
+         */
+        COALESCE
+    }
+
+    /**
+     * A single worker thread and the bounded multi-producer ring buffer it
+     * drains. The ring buffer is Dmitry Vyukov's bounded MPMC queue: every
+     * slot has a sequence number that says whether it is ready to be written
+     * or read for a given position, so producers and consumers only ever
+     * contend on a single CAS. It has to support multiple consumers because
+     * {@link Backpressure#COALESCE} dequeues from the pushing thread.
+     */
+    private static final class Lane implements Runnable {
+        private final int mask;
+        private final AtomicLongArray sequences;
+        private final Object[] events;
+        private final Registration[][] targets;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLong tail = new AtomicLong();
+        private final AtomicLong published = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final Thread worker;
+        private volatile boolean waiting;
+
+        private Lane(final int index, final int capacity) {
+            mask = capacity - 1;
+            sequences = new AtomicLongArray(capacity);
+            for(int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+            events = new Object[capacity];
+            targets = new Registration[capacity][];
+            worker = new Thread(this, "Pipe Event Lane #" + index);
+            worker.setDaemon(true);
+        }
+
+        private void publish(final Object event, final Registration[] listeners, final Backpressure backpressure) {
+            while(!offer(event, listeners)) {
+                // Blocking the worker on its own lane would never finish
+                if(backpressure == Backpressure.DROP || Thread.currentThread() == worker) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                if(backpressure == Backpressure.COALESCE) {
+                    if(poll(false)) {
+                        dropped.incrementAndGet();
+                    }
+                } else {
+                    LockSupport.unpark(worker);
+                    LockSupport.parkNanos(this, 50_000L);
+                }
+            }
+            published.incrementAndGet();
+            if(waiting) {
+                LockSupport.unpark(worker);
+            }
+        }
+
+        private boolean offer(final Object event, final Registration[] listeners) {
+            long pos = tail.get();
+            while(true) {
+                final int index = (int) pos & mask;
+                final long diff = sequences.get(index) - pos;
+                if(diff == 0) {
+                    if(tail.compareAndSet(pos, pos + 1)) {
+                        events[index] = event;
+                        targets[index] = listeners;
+                        sequences.lazySet(index, pos + 1);
+                        return true;
+                    }
+                    pos = tail.get();
+                } else if(diff < 0) {
+                    return false;
+                } else {
+                    pos = tail.get();
+                }
+            }
+        }
+
+        /**
+         * Takes the oldest event off the lane.
+         *
+         * @param deliver Whether to run the listeners for the event, or to
+         *                just discard it
+         * @return Whether there was an event to take
+         */
+        private boolean poll(final boolean deliver) {
+            long pos = head.get();
+            while(true) {
+                final int index = (int) pos & mask;
+                final long diff = sequences.get(index) - (pos + 1);
+                if(diff == 0) {
+                    if(head.compareAndSet(pos, pos + 1)) {
+                        final Object event = events[index];
+                        final Registration[] listeners = targets[index];
+                        events[index] = null;
+                        targets[index] = null;
+                        sequences.lazySet(index, pos + mask + 1);
+                        if(deliver) {
+                            deliver(event, listeners);
+                        }
+                        return true;
+                    }
+                    pos = head.get();
+                } else if(diff < 0) {
+                    return false;
+                } else {
+                    pos = head.get();
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static void deliver(final Object event, final Registration[] listeners) {
+            for(final Registration registration : listeners) {
+                try {
+                    ((Listener<Object>) registration.getListener()).event(event);
+                } catch(final Throwable t) {
+                    registration.failed(t);
+                }
+            }
+        }
+
+        private long depth() {
+            return Math.max(0, tail.get() - head.get());
+        }
+
+        @Override
+        @SuppressWarnings("InfiniteLoopStatement")
+        public void run() {
+            while(true) {
+                if(poll(true)) {
+                    continue;
+                }
+                waiting = true;
+                // Re-check after announcing that we're waiting, so that an
+                // event published in between can't be missed
+                if(depth() == 0) {
+                    LockSupport.parkNanos(this, 10_000_000L);
+                }
+                waiting = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.Pipe;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds listeners that keep a reference to a pooled event after it has been
+ * dispatched. Only used in debug mode, where {@link EventPool} hands out a
+ * fresh instance for every push and passes it here once it's released.
+ * <p>
+ * A released event is weakly referenced together with the number of
+ * garbage collections so far. Debug-mode events are allocated right before
+ * being pushed and released right after, so they are still young when
+ * released; an event that nothing holds on to is cleared by the next
+ * collection at the latest. If one is still there after
+ * {@link #COLLECTIONS} more collections, something kept it, and its type
+ * gets reported once.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+final class EventLeakDetector {
+    /**
+     * Upper bound on the number of events watched at once, so that debug
+     * mode can't run the client out of memory if nothing is being collected.
+     */
+    private static final int MAX_TRACKED = 10000;
+
+    /**
+     * How many collections an event has to survive after being released in
+     * order to be reported. More than one, in case an event survived a
+     * collection that happened while it was still being dispatched.
+     */
+    private static final int COLLECTIONS = 2;
+
+    private static final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private static final Set<Tracked> tracked = ConcurrentHashMap.newKeySet();
+    private static final Set<Class<?>> reported = ConcurrentHashMap.newKeySet();
+
+    private static volatile long lastCheckedCollections;
+
+    private EventLeakDetector() {
+    }
+
+    /**
+     * Starts watching a released event.
+     *
+     * @param event The event that was just released
+     */
+    static void track(final Object event) {
+        drain();
+        if(tracked.size() < MAX_TRACKED && !reported.contains(event.getClass())) {
+            tracked.add(new Tracked(event, queue, collections()));
+        }
+        if(collections() != lastCheckedCollections) {
+            check();
+        }
+    }
+
+    /**
+     * Reports every watched event that should have been collected by now.
+     *
+     * @return The number of event types newly reported
+     */
+    static int check() {
+        drain();
+        final long now = collections();
+        lastCheckedCollections = now;
+        int found = 0;
+        for(final Tracked t : tracked) {
+            if(now - t.collections < COLLECTIONS) {
+                continue;
+            }
+            tracked.remove(t);
+            if(t.get() != null && reported.add(t.type)) {
+                ++found;
+                Pipe.getLogger().warning("A " + t.type.getSimpleName() + " event was still reachable " + COLLECTIONS
+                        + " garbage collections after being released; a listener for it is probably keeping a "
+                        + "reference after dispatch.");
+            }
+        }
+        return found;
+    }
+
+    private static void drain() {
+        Reference<?> ref;
+        while((ref = queue.poll()) != null) {
+            tracked.remove(ref);
+        }
+    }
+
+    private static long collections() {
+        long total = 0;
+        for(final GarbageCollectorMXBean collector : collectors) {
+            // -1 means the collector doesn't keep count
+            total += Math.max(0, collector.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static final class Tracked extends WeakReference<Object> {
+        private final Class<?> type;
+        private final long collections;
+
+        private Tracked(final Object event, final ReferenceQueue<Object> queue, final long collections) {
+            super(event, queue);
+            type = event.getClass();
+            this.collections = collections;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.Pipe;
+import lombok.NonNull;
+
+import java.util.function.Supplier;
+
+/**
+ * A per-thread pool of one reusable instance of an event type, for the events
+ * that injected code pushes on every call of some hot game method. Without a
+ * pool, every packet, frame, entity render and block collision allocates an
+ * event that becomes garbage right after being pushed.
+ * <p>
+ * An event is taken with {@link #acquire()}, reset and pushed by its owner,
+ * and handed back with {@link #release(Object)} once the owner is done
+ * reading it. If the thread's instance is still in use, for example because
+ * a listener sends a packet while handling a <tt>PacketSend</tt>, a fresh
+ * instance is handed out instead so that the outer event isn't overwritten.
+ * <p>
+ * An event that is never released keeps its slot in use, and every later
+ * acquire on that thread then allocates. Owners should release in a
+ * <tt>finally</tt> block. The injected code can't, so events that implement
+ * {@link Pooled} are released by {@link PipeEventBus} when a listener's
+ * {@link VirtualMachineError} escapes <tt>push</tt>, such as a
+ * {@link StackOverflowError} from a chat listener that sends chat.
+ * <p>
+ * Listeners must not keep a reference to a pooled event once they return,
+ * as it will be reused for the next push. In debug mode, every acquire
+ * hands out a fresh instance, and released instances are watched by
+ * {@link EventLeakDetector} so that listeners that do keep them around get
+ * reported.
+ *
+ * @param <T> The type of event being pooled.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class EventPool<T> {
+    private final Supplier<T> factory;
+
+    private final ThreadLocal<Slot<T>> slots;
+
+    /**
+     * Creates a new pool.
+     *
+     * @param factory Creates a new, blank instance of the event. May not be
+     *                null.
+     */
+    public EventPool(@NonNull final Supplier<T> factory) {
+        this.factory = factory;
+        slots = ThreadLocal.withInitial(() -> new Slot<>(factory.get()));
+    }
+
+    /**
+     * Takes this thread's instance of the event, or a new instance if it is
+     * already in use or debug mode is enabled. The caller is responsible for
+     * resetting every field of the returned event.
+     *
+     * @return An event instance that the caller owns until it is released
+     */
+    public T acquire() {
+        if(Pipe.getInstance().isInDebugMode()) {
+            return factory.get();
+        }
+        final Slot<T> slot = slots.get();
+        if(slot.inUse) {
+            return factory.get();
+        }
+        slot.inUse = true;
+        return slot.event;
+    }
+
+    /**
+     * Hands an event back to the pool. Events that weren't this thread's
+     * pooled instance are left to the garbage collector.
+     *
+     * @param event The event to release. Must have come from {@link #acquire()}
+     *              on this thread.
+     */
+    public void release(final T event) {
+        final Slot<T> slot = slots.get();
+        if(slot.event == event) {
+            slot.inUse = false;
+        } else if(Pipe.getInstance().isInDebugMode()) {
+            EventLeakDetector.track(event);
+        }
+    }
+
+    private static final class Slot<T> {
+        private final T event;
+        private boolean inUse;
+
+        private Slot(final T event) {
+            this.event = event;
+        }
+    }
+}
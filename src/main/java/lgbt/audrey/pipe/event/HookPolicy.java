@@ -0,0 +1,33 @@
+package lgbt.audrey.pipe.event;
+
+/**
+ * What the hooks in game code do for a cancellable event type, as declared
+ * by plugins through {@link EventBus#setPolicy}. Modules whose only job is
+ * to always cancel an event should declare {@link #ALWAYS_CANCEL} instead
+ * of registering a listener, which turns the hook into a single branch.
+ * <p>
+ * If several plugins declare a policy for the same type, the one declared
+ * furthest down this list wins.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public enum HookPolicy {
+    /**
+     * Push the event to the listeners, if there are any. The default.
+     */
+    DISPATCH,
+
+    /**
+     * Skip the hook, so the event is neither pushed nor cancelled, even if
+     * there are listeners.
+     */
+    NEVER,
+
+    /**
+     * Act as if the event was cancelled, without creating or pushing it.
+     * Events of the type pushed by other code are still cancelled before
+     * any other listener sees them.
+     */
+    ALWAYS_CANCEL
+}
@@ -0,0 +1,186 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.event.events.Keypress;
+import lgbt.audrey.pipe.event.events.PacketBufferStringRead;
+import lgbt.audrey.pipe.event.events.PacketReceive;
+import lgbt.audrey.pipe.event.events.PacketSend;
+import lgbt.audrey.pipe.event.events.Render2D;
+import lgbt.audrey.pipe.event.events.Render3D;
+import lgbt.audrey.pipe.event.events.RenderEntity;
+import lgbt.audrey.pipe.event.events.RenderFramebuffer;
+import lgbt.audrey.pipe.event.events.SoulSandSpeed;
+import lgbt.audrey.pipe.event.events.Tick;
+import lgbt.audrey.pipe.util.Cancellable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guards for the event hooks that the injectors put into game code. Every
+ * hook is wrapped in <tt>if(Hooks.hasX()) { ... }</tt>, so that it doesn't
+ * even get the bus or create its event while nobody listens for it.
+ * <p>
+ * Each guard reads a {@link MutableCallSite} whose target is a constant
+ * <tt>true</tt> or <tt>false</tt>, through an invoker held in a
+ * <tt>static final</tt> field. The JIT treats both the invoker and the
+ * call site's current target as constants, so in compiled game code an
+ * unused hook folds away entirely. When the bus gains its first or loses
+ * its last listener for a type, it calls
+ * {@link #invalidate(EventBus, Class)}, which retargets the call site and
+ * makes the JIT throw away any code that depended on the old target.
+ * <p>
+ * Hooks for cancellable events are additionally wrapped in
+ * <tt>if(Hooks.cancelsX()) { ...act as if cancelled... }</tt>, which works
+ * the same way and follows the {@link HookPolicy} declared for the type. A
+ * type that is always cancelled doesn't get its event created or pushed at
+ * all, and one with {@link HookPolicy#NEVER} is skipped like one without
+ * listeners.
+ * <p>
+ * The guards follow whichever bus {@link #bind(EventBus) is bound}, which
+ * is the one Pipe uses. Buses that don't override
+ * {@link EventBus#hasListeners(Class)} keep every hook enabled.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class Hooks {
+    private static final Map<Class<?>, MutableCallSite> sites = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, MutableCallSite> cancelSites = new ConcurrentHashMap<>();
+
+    private static volatile EventBus bus;
+
+    private static final MethodHandle KEYPRESS = site(Keypress.class);
+    private static final MethodHandle PACKET_BUFFER_STRING_READ = site(PacketBufferStringRead.class);
+    private static final MethodHandle PACKET_RECEIVE = site(PacketReceive.class);
+    private static final MethodHandle PACKET_SEND = site(PacketSend.class);
+    private static final MethodHandle RENDER_2D = site(Render2D.class);
+    private static final MethodHandle RENDER_3D = site(Render3D.class);
+    private static final MethodHandle RENDER_ENTITY = site(RenderEntity.class);
+    private static final MethodHandle RENDER_FRAMEBUFFER = site(RenderFramebuffer.class);
+    private static final MethodHandle SOUL_SAND_SPEED = site(SoulSandSpeed.class);
+    private static final MethodHandle TICK = site(Tick.class);
+
+    private static final MethodHandle CANCELS_PACKET_SEND = cancelSite(PacketSend.class);
+    private static final MethodHandle CANCELS_SOUL_SAND_SPEED = cancelSite(SoulSandSpeed.class);
+
+    private Hooks() {
+    }
+
+    private static MethodHandle site(final Class<?> type) {
+        final MutableCallSite site = new MutableCallSite(MethodHandles.constant(boolean.class, isHooked(type)));
+        sites.put(type, site);
+        return site.dynamicInvoker();
+    }
+
+    private static MethodHandle cancelSite(final Class<? extends Cancellable> type) {
+        final MutableCallSite site = new MutableCallSite(MethodHandles.constant(boolean.class, isCancelled(type)));
+        cancelSites.put(type, site);
+        return site.dynamicInvoker();
+    }
+
+    private static boolean isHooked(final Class<?> type) {
+        final EventBus current = bus;
+        return current == null || current.getPolicy(type) == HookPolicy.DISPATCH && current.hasListeners(type);
+    }
+
+    private static boolean isCancelled(final Class<?> type) {
+        final EventBus current = bus;
+        return current != null && current.getPolicy(type) == HookPolicy.ALWAYS_CANCEL;
+    }
+
+    /**
+     * Makes the guards follow the given bus.
+     *
+     * @param eventBus The bus that the hooks push to
+     */
+    public static void bind(final EventBus eventBus) {
+        bus = eventBus;
+        sites.keySet().forEach(Hooks::update);
+    }
+
+    /**
+     * Tells the guards that whether the given bus has listeners for the given
+     * type, or the type's {@link HookPolicy}, may have changed. Ignored if
+     * the bus isn't the bound one.
+     *
+     * @param eventBus The bus whose listeners or policies changed
+     * @param type     The event type
+     */
+    public static void invalidate(final EventBus eventBus, final Class<?> type) {
+        if(eventBus == bus && sites.containsKey(type)) {
+            update(type);
+        }
+    }
+
+    private static synchronized void update(final Class<?> type) {
+        final MutableCallSite site = sites.get(type);
+        site.setTarget(MethodHandles.constant(boolean.class, isHooked(type)));
+        final MutableCallSite cancelSite = cancelSites.get(type);
+        if(cancelSite == null) {
+            MutableCallSite.syncAll(new MutableCallSite[] {site});
+        } else {
+            cancelSite.setTarget(MethodHandles.constant(boolean.class, isCancelled(type)));
+            MutableCallSite.syncAll(new MutableCallSite[] {site, cancelSite});
+        }
+    }
+
+    private static boolean get(final MethodHandle guard) {
+        try {
+            return (boolean) guard.invokeExact();
+        } catch(final Throwable t) {
+            // The targets are constants, so this can't happen
+            throw new IllegalStateException(t);
+        }
+    }
+
+    public static boolean cancelsPacketSend() {
+        return get(CANCELS_PACKET_SEND);
+    }
+
+    public static boolean cancelsSoulSandSpeed() {
+        return get(CANCELS_SOUL_SAND_SPEED);
+    }
+
+    public static boolean hasKeypress() {
+        return get(KEYPRESS);
+    }
+
+    public static boolean hasPacketBufferStringRead() {
+        return get(PACKET_BUFFER_STRING_READ);
+    }
+
+    public static boolean hasPacketReceive() {
+        return get(PACKET_RECEIVE);
+    }
+
+    public static boolean hasPacketSend() {
+        return get(PACKET_SEND);
+    }
+
+    public static boolean hasRender2D() {
+        return get(RENDER_2D);
+    }
+
+    public static boolean hasRender3D() {
+        return get(RENDER_3D);
+    }
+
+    public static boolean hasRenderEntity() {
+        return get(RENDER_ENTITY);
+    }
+
+    public static boolean hasRenderFramebuffer() {
+        return get(RENDER_FRAMEBUFFER);
+    }
+
+    public static boolean hasSoulSandSpeed() {
+        return get(SOUL_SAND_SPEED);
+    }
+
+    public static boolean hasTick() {
+        return get(TICK);
+    }
+}
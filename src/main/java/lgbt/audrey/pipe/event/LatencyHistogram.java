@@ -0,0 +1,106 @@
+package lgbt.audrey.pipe.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of durations in nanoseconds, with one bucket per
+ * power of two. Recording is a couple of uncontended atomic adds, so it can
+ * be done from any thread that pushes events; percentiles are only accurate
+ * to within a factor of two, which is plenty to tell which listener is slow.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class LatencyHistogram {
+    /**
+     * Bucket <tt>i</tt> counts durations in <tt>[2^(i-1), 2^i)</tt>; bucket 0
+     * counts durations of 0.
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration, in nanoseconds
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+        long current;
+        while(value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // Retry until max is at least value
+        }
+    }
+
+    /**
+     * @return The number of durations recorded
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return The sum of all durations recorded, in nanoseconds
+     */
+    public long getTotal() {
+        return total.get();
+    }
+
+    /**
+     * @return The longest duration recorded, in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return The mean duration, in nanoseconds, or 0 if nothing has been
+     *         recorded
+     */
+    public long getMean() {
+        final long n = count.get();
+        return n == 0 ? 0 : total.get() / n;
+    }
+
+    /**
+     * Estimates a percentile of the recorded durations. The estimate is the
+     * upper bound of the bucket the percentile falls into.
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The estimated percentile, in nanoseconds
+     */
+    public long getPercentile(final double percentile) {
+        final long n = count.get();
+        if(n == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(n * percentile / 100D);
+        long seen = 0;
+        for(int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if(seen >= rank) {
+                return i == 0 ? 0 : Math.min(max.get(), (1L << Math.min(i, Long.SIZE - 2)) - 1);
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Forgets every recorded duration. Durations recorded while resetting may
+     * be partially lost.
+     */
+    public void reset() {
+        for(int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+}
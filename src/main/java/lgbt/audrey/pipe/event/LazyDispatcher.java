@@ -0,0 +1,50 @@
+package lgbt.audrey.pipe.event;
+
+/**
+ * Stands in for a generated {@link Dispatcher} until the first event of its
+ * type is pushed. Generating a dispatcher means spinning up a class and a
+ * class loader, so it is put off until the listeners are actually needed:
+ * registering a plugin's listeners one by one then only generates one
+ * dispatcher per type in the end, instead of one per registration, and
+ * types that are never pushed don't get one at all.
+ * <p>
+ * Once generated, the dispatcher replaces this one in the bus's dispatch
+ * table, so later pushes call it directly.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+final class LazyDispatcher extends Dispatcher {
+    private final PipeEventBus bus;
+    private final Class<?> type;
+
+    private volatile Dispatcher generated;
+
+    /**
+     * @param bus           The bus whose dispatch table this is in
+     * @param type          The event type the listeners are registered for
+     * @param registrations The listeners, in dispatch order
+     */
+    LazyDispatcher(final PipeEventBus bus, final Class<?> type, final Registration[] registrations) {
+        super(registrations);
+        this.bus = bus;
+        this.type = type;
+    }
+
+    @Override
+    public void dispatch(final Object event) {
+        Dispatcher dispatcher = generated;
+        if(dispatcher == null) {
+            dispatcher = generate();
+        }
+        dispatcher.dispatch(event);
+    }
+
+    private synchronized Dispatcher generate() {
+        if(generated == null) {
+            generated = DispatcherGenerator.generate(type, getRegistrations());
+            bus.replace(type, this, generated);
+        }
+        return generated;
+    }
+}
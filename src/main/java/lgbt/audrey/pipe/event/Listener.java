@@ -2,11 +2,23 @@ package lgbt.audrey.pipe.event;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.function.Consumer;
 
 /**
  * Listener class. When a <tt>Listener</tt> is registered, it will have its
  * {@link #event(Object)} method invoked when an event of the corresponding
  * type is pushed through the "system."
+ * <p>
+ * Listeners can either be anonymous subclasses, which have their type
+ * resolved from their generic superclass, or be built from a lambda or
+ * method reference through {@link #of(Class, Consumer)}, which needs neither
+ * a class of its own nor any reflection.
+ * <p>
+ * Listeners run in {@link #getPriority()} order. If the event is
+ * {@link lgbt.audrey.pipe.util.Cancellable} and one of them cancels it, the
+ * remaining listeners are skipped unless they {@link #receivesCancelled()}.
+ * Listeners that only observe events can ask to be run on a worker thread
+ * instead of the pushing thread through {@link #getDelivery()}.
  *
  * @param <T> The type of event to listen for.
  *
@@ -30,6 +42,69 @@ public abstract class Listener<T> {
         }
     }
 
+    /**
+     * Creates a listener for an explicitly given event type. No reflection
+     * is done to find the type.
+     *
+     * @param type The type of event to listen for. May not be null.
+     */
+    protected Listener(final Class<T> type) {
+        this.type = type;
+    }
+
+    /**
+     * Creates a listener that hands every event to the given consumer. This
+     * is the cheap way of making a listener: lambdas and method references
+     * don't add a class per listener, and {@link PipeEventBus} calls the
+     * consumer directly from its own call site so that it can be inlined.
+     *
+     * @param type     The type of event to listen for. May not be null.
+     * @param consumer The consumer to invoke for each event. May not be null.
+     * @param <T>      The type of event to listen for.
+     * @return A new listener for the given type
+     */
+    public static <T> Listener<T> of(final Class<T> type, final Consumer<? super T> consumer) {
+        return new ConsumerListener<>(type, Priority.NORMAL, false, Delivery.SYNC, consumer);
+    }
+
+    /**
+     * Creates a listener that hands every event to the given consumer, with
+     * the given priority.
+     *
+     * @param type             The type of event to listen for. May not be null.
+     * @param priority         When the listener runs. May not be null.
+     * @param receiveCancelled Whether the listener still runs once the event
+     *                         has been cancelled
+     * @param consumer         The consumer to invoke for each event. May not
+     *                         be null.
+     * @param <T>              The type of event to listen for.
+     * @return A new listener for the given type
+     */
+    public static <T> Listener<T> of(final Class<T> type, final Priority priority, final boolean receiveCancelled,
+                                     final Consumer<? super T> consumer) {
+        return new ConsumerListener<>(type, priority, receiveCancelled, Delivery.SYNC, consumer);
+    }
+
+    /**
+     * Creates a listener that hands every event to the given consumer, with
+     * the given priority and delivery.
+     *
+     * @param type             The type of event to listen for. May not be null.
+     * @param priority         When the listener runs. May not be null.
+     * @param receiveCancelled Whether the listener still runs once the event
+     *                         has been cancelled
+     * @param delivery         Which thread the listener runs on. May not be
+     *                         null.
+     * @param consumer         The consumer to invoke for each event. May not
+     *                         be null.
+     * @param <T>              The type of event to listen for.
+     * @return A new listener for the given type
+     */
+    public static <T> Listener<T> of(final Class<T> type, final Priority priority, final boolean receiveCancelled,
+                                     final Delivery delivery, final Consumer<? super T> consumer) {
+        return new ConsumerListener<>(type, priority, receiveCancelled, delivery, consumer);
+    }
+
     /**
      * Invoked when an event of the corresponding type is pushed through the
      * "system."
@@ -46,4 +121,39 @@ public abstract class Listener<T> {
     public final Class<T> getType() {
         return type;
     }
+
+    /**
+     * When this listener runs relative to the other listeners for the same
+     * event type. Only read when the listener is registered, so it must
+     * always return the same value.
+     *
+     * @return The priority of this listener
+     */
+    public Priority getPriority() {
+        return Priority.NORMAL;
+    }
+
+    /**
+     * Whether this listener still runs after an earlier listener has
+     * cancelled the event. By default, cancelling an event skips every
+     * listener after the one that cancelled it; listeners that need to see
+     * cancelled events anyway, for example to un-cancel them, can override
+     * this. Only read when the listener is registered, so it must always
+     * return the same value.
+     *
+     * @return Whether this listener receives cancelled events
+     */
+    public boolean receivesCancelled() {
+        return false;
+    }
+
+    /**
+     * Which thread this listener runs on. Only read when the listener is
+     * registered, so it must always return the same value.
+     *
+     * @return How this listener is handed events
+     */
+    public Delivery getDelivery() {
+        return Delivery.SYNC;
+    }
 }
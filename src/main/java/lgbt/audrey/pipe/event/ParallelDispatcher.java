@@ -0,0 +1,148 @@
+package lgbt.audrey.pipe.event;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A {@link Dispatcher} for event types that have {@link Delivery#PARALLEL}
+ * listeners. Every parallel listener but one is forked onto a
+ * {@link ForkJoinPool}; the pushing thread then runs the serial listeners
+ * and the remaining parallel one itself, and joins the rest before
+ * returning, so that {@link EventBus#push(Object)} still only returns once
+ * every listener has run.
+ * <p>
+ * The forked tasks are kept per pushing thread and reinitialized once they
+ * have been joined, so a push doesn't allocate anything; only a push that
+ * happens while the same thread is already dispatching this type gets
+ * fresh ones.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+final class ParallelDispatcher extends Dispatcher {
+    /**
+     * The dispatcher for the listeners that must run serially on the pushing
+     * thread, or null if there are none.
+     */
+    private final Dispatcher serial;
+
+    private final Registration[] parallel;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * The tasks of each pushing thread, reused from one push to the next.
+     */
+    private final ThreadLocal<Tasks> tasks = ThreadLocal.withInitial(Tasks::new);
+
+    /**
+     * @param registrations All listeners this dispatcher covers, in priority
+     *                      order
+     * @param serial        The dispatcher for the serial listeners, or null
+     * @param parallel      The parallel listeners, in priority order
+     * @param pool          The pool to run parallel listeners on
+     */
+    ParallelDispatcher(final Registration[] registrations, final Dispatcher serial, final Registration[] parallel,
+                       final ForkJoinPool pool) {
+        super(registrations);
+        this.serial = serial;
+        this.parallel = parallel;
+        this.pool = pool;
+    }
+
+    @Override
+    public void dispatch(final Object event) {
+        final Tasks local = tasks.get();
+        if(local.busy) {
+            // A listener pushed this event type again while its tasks are in flight
+            dispatch(event, newTasks());
+            return;
+        }
+        local.busy = true;
+        try {
+            dispatch(event, local.tasks);
+        } finally {
+            local.busy = false;
+        }
+    }
+
+    /**
+     * Runs the listeners and joins every forked task, even if something
+     * throws along the way, so that no listener is still running once this
+     * returns and every task can be reused. The first error is rethrown
+     * after that.
+     */
+    private void dispatch(final Object event, final ListenerTask[] forked) {
+        for(final ListenerTask task : forked) {
+            task.event = event;
+            pool.execute(task);
+        }
+        Throwable error = null;
+        try {
+            if(serial != null) {
+                serial.dispatch(event);
+            }
+            run(parallel[forked.length], event);
+        } catch(final Throwable t) {
+            error = t;
+        }
+        for(final ListenerTask task : forked) {
+            try {
+                task.join();
+            } catch(final Throwable t) {
+                if(error == null) {
+                    error = t;
+                }
+            }
+            task.event = null;
+            task.reinitialize();
+        }
+        if(error instanceof Error) {
+            throw (Error) error;
+        }
+        if(error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if(error != null) {
+            throw new IllegalStateException(error);
+        }
+    }
+
+    private ListenerTask[] newTasks() {
+        final ListenerTask[] forked = new ListenerTask[parallel.length - 1];
+        for(int i = 0; i < forked.length; i++) {
+            forked[i] = new ListenerTask(parallel[i]);
+        }
+        return forked;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void run(final Registration registration, final Object event) {
+        try {
+            ((Listener<Object>) registration.getListener()).event(event);
+        } catch(final Throwable t) {
+            registration.failed(t);
+        }
+    }
+
+    private final class Tasks {
+        private final ListenerTask[] tasks = newTasks();
+        private boolean busy;
+    }
+
+    private static final class ListenerTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Registration registration;
+        private transient Object event;
+
+        private ListenerTask(final Registration registration) {
+            this.registration = registration;
+        }
+
+        @Override
+        protected void compute() {
+            run(registration, event);
+        }
+    }
+}
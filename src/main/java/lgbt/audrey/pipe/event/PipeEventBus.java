@@ -2,68 +2,428 @@ package lgbt.audrey.pipe.event;
 
 import lgbt.audrey.pipe.plugin.Plugin;
 import lgbt.audrey.pipe.util.Cancellable;
+import lombok.Getter;
 import lombok.NonNull;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 /**
  * The default {@link EventBus} that is used by the mod.
+ * <p>
+ * Registrations are kept per-plugin, but {@link #push(Object)} never looks at
+ * them directly. Instead, every change to the registrations rebuilds an
+ * immutable <tt>Class -&gt; Dispatcher</tt> snapshot that is swapped in
+ * atomically, so pushing an event is a single map lookup followed by a call
+ * into a {@link Dispatcher} generated for exactly the listeners that care
+ * about it. Dispatchers for types whose listeners didn't change are reused.
+ * <p>
+ * Within a type, listeners are sorted by {@link Listener#getPriority()} when
+ * the table is rebuilt, so that pushing never has to sort anything. The
+ * dispatcher for a type is only generated once an event of that type is
+ * pushed (see {@link LazyDispatcher}), and {@link #batch(Runnable)} defers
+ * rebuilding until a whole batch of registrations is done, so registering
+ * many listeners one at a time, as plugins do while they are enabled, stays
+ * cheap.
+ * <p>
+ * Types with {@link Delivery#ASYNC} listeners get an {@link AsyncDispatcher}
+ * instead, which queues the event on the bus's {@link EventLanes} after the
+ * synchronous listeners have run. The lanes are only started once the first
+ * asynchronous listener is registered. In the same way, types with
+ * {@link Delivery#PARALLEL} listeners get a {@link ParallelDispatcher} that
+ * fans them out over a {@link ForkJoinPool}; its parallelism can be set with
+ * the <tt>pipe.events.parallelism</tt> system property, and defaults to one
+ * less than the number of cores.
+ * <p>
+ * Every listener is tracked as a {@link Registration}. Exceptions thrown by
+ * listeners are counted there instead of reaching the code that pushed the
+ * event, and listeners that keep throwing get quarantined. While
+ * {@link #setProfiling(boolean) profiling} is enabled, synchronous listeners
+ * are run through {@link ProfilingDispatcher}s that record sampled timings
+ * into each registration's {@link LatencyHistogram}. Profiling can also be
+ * enabled from the start with the <tt>pipe.events.profile</tt> system
+ * property.
+ * <p>
+ * Whenever a type gains its first or loses its last listener, the bus tells
+ * {@link Hooks}, so that the hooks in game code only run while someone
+ * listens. The same goes for changes to the {@link HookPolicy hook policies}
+ * that plugins declare; a policy lasts until its plugin is unregistered.
  *
  * @author c
  * @since 7/11/15
  */
 public class PipeEventBus implements EventBus {
-    private final Map<Plugin, List<Listener<?>>> listeners = new ConcurrentHashMap<>();
+    /**
+     * Registered listeners, in plugin registration order. Only ever touched
+     * while holding the lock on this map.
+     */
+    private final Map<Plugin, List<Registration>> listeners = new LinkedHashMap<>();
+
+    /**
+     * Listeners that were unregistered for throwing too often, kept around
+     * so that they can still be reported. Guarded like {@link #listeners}.
+     */
+    private final List<Registration> quarantined = new ArrayList<>();
+
+    /**
+     * Hook policies declared by plugins, by event type. Guarded like
+     * {@link #listeners}.
+     */
+    private final Map<Class<?>, Map<Plugin, HookPolicy>> policies = new HashMap<>();
+
+    /**
+     * The effective policy of every type with a declared policy other than
+     * {@link HookPolicy#DISPATCH}. Never mutated after being published.
+     */
+    private volatile Map<Class<?>, HookPolicy> effectivePolicies = Collections.emptyMap();
+
+    /**
+     * The snapshot that {@link #push(Object)} reads from. Never mutated after
+     * being published.
+     */
+    private volatile Map<Class<?>, Dispatcher> dispatchTable = Collections.emptyMap();
+
+    /**
+     * The worker threads for asynchronous listeners, or null if none have
+     * been registered yet.
+     */
+    @Getter
+    private volatile EventLanes lanes;
+
+    /**
+     * The pool that parallel listeners run on, or null if none have been
+     * registered yet.
+     */
+    private ForkJoinPool parallelPool;
+
+    /**
+     * Whether synchronous listeners are currently being timed.
+     */
+    @Getter
+    private volatile boolean profiling = Boolean.getBoolean("pipe.events.profile");
+
+    /**
+     * How many {@link #batch(Runnable) batches} are running. Guarded like
+     * {@link #listeners}.
+     */
+    private int batches;
+
+    /**
+     * Whether the registrations changed during the running batches, and if
+     * so, whether unchanged dispatchers may be kept when rebuilding at the
+     * end. Guarded like {@link #listeners}.
+     */
+    private boolean stale;
+    private boolean staleReusable = true;
 
     @Override
     public void register(@NonNull final Plugin plugin, @NonNull final Listener<?> listener) {
-        if(!listeners.containsKey(plugin)) {
-            listeners.put(plugin, new CopyOnWriteArrayList<>());
+        synchronized(listeners) {
+            final List<Registration> pluginListeners = listeners.computeIfAbsent(plugin, p -> new ArrayList<>());
+            // Registering twice is a no-op, as EventBus#register specifies
+            if(pluginListeners.stream().anyMatch(r -> r.getListener().equals(listener))) {
+                return;
+            }
+            pluginListeners.add(new Registration(this, plugin, listener));
+            rebuild(true);
         }
-        listeners.get(plugin).add(listener);
     }
 
     @Override
     public void unregister(@NonNull final Plugin plugin, @NonNull final Listener<?> listener) {
-        if(!listeners.containsKey(plugin)) {
-            return;
+        synchronized(listeners) {
+            final List<Registration> pluginListeners = listeners.get(plugin);
+            if(pluginListeners == null || !pluginListeners.removeIf(r -> r.getListener().equals(listener))) {
+                return;
+            }
+            rebuild(true);
         }
-        listeners.get(plugin).remove(listener);
     }
 
     @Override
     public void unregister(final Plugin plugin) {
-        listeners.remove(plugin);
+        synchronized(listeners) {
+            quarantined.removeIf(r -> r.getPlugin().equals(plugin));
+            boolean changed = listeners.remove(plugin) != null;
+            for(final Map<Plugin, HookPolicy> declared : policies.values()) {
+                changed |= declared.remove(plugin) != null;
+            }
+            if(changed) {
+                rebuild(true);
+            }
+        }
+    }
+
+    /**
+     * Runs the given task, rebuilding the dispatch table only once it is
+     * done instead of after every change it makes. Batches may nest and may
+     * run on several threads at once; the table is rebuilt when the last one
+     * ends. Until then, listeners registered by any thread don't receive
+     * events yet, and unregistered ones still do.
+     *
+     * @param task The task to run. May not be null.
+     */
+    @Override
+    public void batch(@NonNull final Runnable task) {
+        synchronized(listeners) {
+            batches++;
+        }
+        try {
+            task.run();
+        } finally {
+            synchronized(listeners) {
+                if(--batches == 0 && stale) {
+                    final boolean reuse = staleReusable;
+                    stale = false;
+                    staleReusable = true;
+                    rebuild(reuse);
+                }
+            }
+        }
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public <T> T push(@NonNull final T event) {
-        // The typecast being performed here is actually safe, due to the fact
-        // that a listener is looking for an event of type T if its class is
-        // equal to event.getClass(), because that's essentially T.class.
-        // listeners.stream().filter(l -> l.getType().equals(event.getClass())).forEach(l -> ((Listener<T>) l).event(event));
-        outerLoop: for(final Entry<Plugin, List<Listener<?>>> pluginListEntry : listeners.entrySet()) {
-            for(final Listener<?> listener : pluginListEntry.getValue()) {
-                if(listener.getType().equals(event.getClass())) {
-                    ((Listener<T>) listener).event(event);
-                    if(event instanceof Cancellable) {
-                        if(((Cancellable) event).isCancelled()) {
-                            break outerLoop;
-                        }
-                    }
+        // A dispatcher is only ever indexed under its listeners' event type,
+        // and that type is exactly event.getClass(), so handing it the event
+        // is safe.
+        final Dispatcher dispatcher = dispatchTable.get(event.getClass());
+        if(dispatcher != null) {
+            try {
+                dispatcher.dispatch(event);
+            } catch(final Throwable t) {
+                // Only virtual machine errors get here. The caller won't get
+                // to release a pooled event, so do it here, or the pool would
+                // hand out fresh instances on this thread from now on
+                if(event instanceof Pooled) {
+                    ((Pooled) event).release();
                 }
+                throw t;
             }
         }
         return event;
     }
 
+    @Override
+    public boolean hasListeners(final Class<?> type) {
+        return dispatchTable.containsKey(type);
+    }
+
+    @Override
+    public void setPolicy(@NonNull final Plugin plugin, @NonNull final Class<? extends Cancellable> type,
+                          @NonNull final HookPolicy policy) {
+        synchronized(listeners) {
+            final Map<Plugin, HookPolicy> declared = policies.computeIfAbsent(type, t -> new HashMap<>());
+            final HookPolicy old = policy == HookPolicy.DISPATCH ? declared.remove(plugin) : declared.put(plugin, policy);
+            if(old != policy && !(old == null && policy == HookPolicy.DISPATCH)) {
+                rebuild(true);
+            }
+        }
+    }
+
+    @Override
+    public HookPolicy getPolicy(final Class<?> type) {
+        return effectivePolicies.getOrDefault(type, HookPolicy.DISPATCH);
+    }
+
     @Override
     public void clear() {
-        listeners.clear();
+        synchronized(listeners) {
+            listeners.clear();
+            quarantined.clear();
+            policies.clear();
+            rebuild(true);
+        }
+    }
+
+    /**
+     * Enables or disables timing of synchronous listeners. Every dispatcher is
+     * replaced, so that no generated dispatcher ever pays for profiling.
+     *
+     * @param profiling Whether listeners should be timed
+     */
+    public void setProfiling(final boolean profiling) {
+        synchronized(listeners) {
+            if(this.profiling != profiling) {
+                this.profiling = profiling;
+                rebuild(false);
+            }
+        }
+    }
+
+    /**
+     * Returns every current registration, followed by every quarantined
+     * one.
+     *
+     * @return A snapshot of the registrations
+     */
+    public List<Registration> getRegistrations() {
+        synchronized(listeners) {
+            final List<Registration> registrations = new ArrayList<>();
+            listeners.values().forEach(registrations::addAll);
+            registrations.addAll(quarantined);
+            return registrations;
+        }
+    }
+
+    /**
+     * Unregisters a listener that keeps throwing. Called by the registration
+     * itself, possibly while its listener is being dispatched to.
+     *
+     * @param registration The registration to remove
+     */
+    void quarantine(final Registration registration) {
+        synchronized(listeners) {
+            final List<Registration> pluginListeners = listeners.get(registration.getPlugin());
+            if(pluginListeners != null && pluginListeners.remove(registration)) {
+                quarantined.add(registration);
+                rebuild(true);
+            }
+        }
+    }
+
+    /**
+     * Swaps a dispatcher in the published table for another one with the
+     * same listeners, unless the table has been rebuilt in the meantime.
+     *
+     * @param type        The event type
+     * @param expected    The dispatcher to replace
+     * @param replacement Its replacement
+     */
+    void replace(final Class<?> type, final Dispatcher expected, final Dispatcher replacement) {
+        synchronized(listeners) {
+            if(dispatchTable.get(type) == expected) {
+                final Map<Class<?>, Dispatcher> table = new HashMap<>(dispatchTable);
+                table.put(type, replacement);
+                dispatchTable = table;
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the dispatch table from the current registrations and
+     * publishes it, or marks it as stale while a batch is running. Must be
+     * called while holding the lock on {@link #listeners}.
+     *
+     * @param reuse Whether dispatchers whose listeners didn't change may be
+     *              kept
+     */
+    private void rebuild(final boolean reuse) {
+        if(batches > 0) {
+            stale = true;
+            staleReusable &= reuse;
+            return;
+        }
+        final Map<Class<?>, HookPolicy> previousPolicies = effectivePolicies;
+        final Map<Class<?>, HookPolicy> newPolicies = new HashMap<>();
+        policies.forEach((type, declared) -> declared.values().stream().max(Comparator.naturalOrder())
+                .filter(p -> p != HookPolicy.DISPATCH).ifPresent(p -> newPolicies.put(type, p)));
+        final Map<Class<?>, List<Registration>> byType = new HashMap<>();
+        for(final List<Registration> pluginListeners : listeners.values()) {
+            for(final Registration registration : pluginListeners) {
+                // Listeners whose type couldn't be resolved can never match
+                if(registration.getListener().getType() == null) {
+                    continue;
+                }
+                byType.computeIfAbsent(registration.getListener().getType(), t -> new ArrayList<>()).add(registration);
+            }
+        }
+        // Always-cancelled types need a dispatcher even without listeners
+        newPolicies.forEach((type, policy) -> {
+            if(policy == HookPolicy.ALWAYS_CANCEL) {
+                byType.computeIfAbsent(type, t -> new ArrayList<>());
+            }
+        });
+        final Map<Class<?>, Dispatcher> previous = dispatchTable;
+        final Map<Class<?>, Dispatcher> table = new HashMap<>(byType.size() * 2);
+        byType.forEach((type, typeListeners) -> {
+            // List.sort is stable, so registration order is kept within a priority
+            typeListeners.sort(Comparator.comparing(r -> r.getListener().getPriority()));
+            final Registration[] array = typeListeners.toArray(new Registration[typeListeners.size()]);
+            final boolean cancelling = newPolicies.get(type) == HookPolicy.ALWAYS_CANCEL;
+            final Dispatcher old = previous.get(type);
+            if(reuse && old != null && Arrays.equals(old.getRegistrations(), array)
+                    && old instanceof CancellingDispatcher == cancelling) {
+                table.put(type, old);
+            } else if(cancelling) {
+                final Registration[] receivers = Arrays.stream(array).filter(r -> r.getListener().receivesCancelled())
+                        .toArray(Registration[]::new);
+                table.put(type, new CancellingDispatcher(array,
+                        receivers.length == 0 ? null : createDispatcher(type, receivers)));
+            } else {
+                table.put(type, createDispatcher(type, array));
+            }
+        });
+        effectivePolicies = newPolicies;
+        dispatchTable = table;
+        final Set<Class<?>> changed = new HashSet<>();
+        previous.keySet().stream().filter(type -> !table.containsKey(type)).forEach(changed::add);
+        table.keySet().stream().filter(type -> !previous.containsKey(type)).forEach(changed::add);
+        previousPolicies.keySet().stream().filter(type -> previousPolicies.get(type) != newPolicies.get(type))
+                .forEach(changed::add);
+        newPolicies.keySet().stream().filter(type -> !previousPolicies.containsKey(type)).forEach(changed::add);
+        changed.forEach(type -> Hooks.invalidate(this, type));
+    }
+
+    /**
+     * Creates a dispatcher for the given listeners. Must be called while
+     * holding the lock on {@link #listeners}.
+     */
+    private Dispatcher createDispatcher(final Class<?> type, final Registration[] array) {
+        // Cancellation has to be seen in order, so parallel listeners for
+        // cancellable events run serially
+        final boolean cancellable = Cancellable.class.isAssignableFrom(type);
+        final Registration[] serial = Arrays.stream(array)
+                .filter(r -> r.getListener().getDelivery() == Delivery.SYNC
+                        || cancellable && r.getListener().getDelivery() == Delivery.PARALLEL)
+                .toArray(Registration[]::new);
+        final Registration[] parallel = cancellable ? new Registration[0] : Arrays.stream(array)
+                .filter(r -> r.getListener().getDelivery() == Delivery.PARALLEL).toArray(Registration[]::new);
+        final Registration[] async = Arrays.stream(array).filter(r -> r.getListener().getDelivery() == Delivery.ASYNC)
+                .toArray(Registration[]::new);
+        if(parallel.length == 0 && async.length == 0) {
+            return createSerialDispatcher(type, array);
+        }
+
+        Dispatcher dispatcher = serial.length == 0 ? null : createSerialDispatcher(type, serial);
+        if(parallel.length > 0) {
+            if(parallelPool == null) {
+                parallelPool = createParallelPool();
+            }
+            final Registration[] covered = Arrays.stream(array)
+                    .filter(r -> r.getListener().getDelivery() != Delivery.ASYNC).toArray(Registration[]::new);
+            dispatcher = new ParallelDispatcher(covered, dispatcher, parallel, parallelPool);
+        }
+        if(async.length == 0) {
+            return dispatcher;
+        }
+        if(lanes == null) {
+            lanes = EventLanes.fromProperties();
+        }
+        return new AsyncDispatcher(array, dispatcher, async, lanes, type);
+    }
+
+    private Dispatcher createSerialDispatcher(final Class<?> type, final Registration[] registrations) {
+        return profiling ? new ProfilingDispatcher(registrations, type) : new LazyDispatcher(this, type, registrations);
+    }
+
+    private static ForkJoinPool createParallelPool() {
+        final int parallelism = Math.max(1, Integer.getInteger("pipe.events.parallelism",
+                Runtime.getRuntime().availableProcessors() - 1));
+        return new ForkJoinPool(parallelism, pool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Pipe Parallel Listener #" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
     }
 }
@@ -0,0 +1,18 @@
+package lgbt.audrey.pipe.event;
+
+/**
+ * An event that is taken from an {@link EventPool} and has to be handed back
+ * once its owner is done with it. {@link PipeEventBus} releases these itself
+ * if an error escapes {@link EventBus#push(Object)}, as the injected code that
+ * pushes them only releases them when <tt>push</tt> returns normally.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public interface Pooled {
+    /**
+     * Hands the event back to its pool. The event must not be used
+     * afterwards.
+     */
+    void release();
+}
@@ -0,0 +1,21 @@
+package lgbt.audrey.pipe.event;
+
+/**
+ * When a {@link Listener} runs relative to the other listeners for the same
+ * event type. Listeners run in the order of these constants; listeners with
+ * the same priority run in the order they were registered in.
+ * <p>
+ * Cheap listeners that may cancel an event, such as filters, should use
+ * {@link #FIRST} or {@link #EARLY}, so that expensive listeners further down
+ * don't run for events that end up being cancelled anyway.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public enum Priority {
+    FIRST,
+    EARLY,
+    NORMAL,
+    LATE,
+    LAST
+}
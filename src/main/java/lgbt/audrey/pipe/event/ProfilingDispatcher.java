@@ -0,0 +1,60 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.util.Cancellable;
+
+/**
+ * A {@link Dispatcher} that times its listeners. Used instead of generated
+ * dispatchers while {@link PipeEventBus#isProfiling() profiling} is enabled,
+ * so that the generated ones never pay for it.
+ * <p>
+ * Only one dispatch in every {@link #SAMPLE_INTERVAL} is timed, which keeps
+ * the cost of calling {@link System#nanoTime()} around every listener out of
+ * the frame time being measured. The interval can be set with the
+ * <tt>pipe.events.profile.interval</tt> system property.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+final class ProfilingDispatcher extends Dispatcher {
+    private static final int SAMPLE_INTERVAL = Math.max(1, Integer.getInteger("pipe.events.profile.interval", 16));
+
+    private final Registration[] registrations;
+    private final boolean cancellable;
+
+    /**
+     * Counts dispatches to decide which ones to sample. Racy on purpose: an
+     * occasional lost update only shifts which dispatch gets sampled.
+     */
+    private int dispatches;
+
+    /**
+     * @param registrations The listeners, in dispatch order
+     * @param type          The event type the listeners are registered for
+     */
+    ProfilingDispatcher(final Registration[] registrations, final Class<?> type) {
+        super(registrations);
+        this.registrations = registrations;
+        cancellable = Cancellable.class.isAssignableFrom(type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void dispatch(final Object event) {
+        final boolean sample = ++dispatches % SAMPLE_INTERVAL == 0;
+        for(int i = 0; i < registrations.length; i++) {
+            final Listener<Object> listener = (Listener<Object>) registrations[i].getListener();
+            if(cancellable && i > 0 && !listener.receivesCancelled() && ((Cancellable) event).isCancelled()) {
+                continue;
+            }
+            final long start = sample ? System.nanoTime() : 0L;
+            try {
+                listener.event(event);
+            } catch(final Throwable t) {
+                failed(i, t);
+            }
+            if(sample) {
+                registrations[i].getHistogram().record(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.Pipe;
+import lgbt.audrey.pipe.plugin.Plugin;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A listener registered with a {@link PipeEventBus} by a plugin, together
+ * with the bus's bookkeeping for it: how long it takes when profiling is
+ * enabled, and how often it has thrown.
+ * <p>
+ * A listener that throws {@link #QUARANTINE_THRESHOLD} times within
+ * {@link #QUARANTINE_WINDOW_NANOS} is quarantined: it gets unregistered, so
+ * that a broken plugin can't keep unwinding the game's hot paths. The
+ * threshold can be set with the <tt>pipe.events.quarantine</tt> system
+ * property; 0 disables quarantining.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class Registration {
+    private static final int QUARANTINE_THRESHOLD = Integer.getInteger("pipe.events.quarantine", 10);
+    private static final long QUARANTINE_WINDOW_NANOS = 10_000_000_000L;
+
+    private final PipeEventBus bus;
+
+    @Getter
+    private final Plugin plugin;
+
+    @Getter
+    private final Listener<?> listener;
+
+    /**
+     * Sampled durations of the listener, only recorded while the bus is
+     * profiling.
+     */
+    @Getter
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicInteger recentFailures = new AtomicInteger();
+    private volatile long windowStart;
+
+    @Getter
+    private volatile boolean quarantined;
+
+    Registration(final PipeEventBus bus, final Plugin plugin, final Listener<?> listener) {
+        this.bus = bus;
+        this.plugin = plugin;
+        this.listener = listener;
+    }
+
+    /**
+     * @return The number of times the listener has thrown
+     */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Describes the listener for people: its plugin, event type, and class.
+     *
+     * @return A description of the listener
+     */
+    public String describe() {
+        return plugin.getName() + ": " + (listener.getType() == null ? "?" : listener.getType().getSimpleName())
+                + " -> " + listener;
+    }
+
+    /**
+     * Accounts for the listener having thrown, and quarantines it if it
+     * throws too often. {@link VirtualMachineError}s are rethrown, as
+     * nothing should try to carry on after one.
+     *
+     * @param t What the listener threw
+     */
+    void failed(final Throwable t) {
+        if(t instanceof VirtualMachineError) {
+            throw (VirtualMachineError) t;
+        }
+        if(failures.incrementAndGet() == 1) {
+            Pipe.getLogger().warning("Listener " + describe() + " threw " + t);
+            t.printStackTrace();
+        }
+        if(QUARANTINE_THRESHOLD <= 0 || quarantined) {
+            return;
+        }
+        final long now = System.nanoTime();
+        if(now - windowStart > QUARANTINE_WINDOW_NANOS) {
+            windowStart = now;
+            recentFailures.set(0);
+        }
+        if(recentFailures.incrementAndGet() >= QUARANTINE_THRESHOLD) {
+            quarantined = true;
+            Pipe.getLogger().warning("Quarantining listener " + describe() + " after it threw "
+                    + QUARANTINE_THRESHOLD + " times; last: " + t);
+            bus.quarantine(this);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package lgbt.audrey.pipe.event;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method as an event listener. The method must not be private or
+ * static, must return <tt>void</tt>, and must take exactly one parameter: the
+ * event to listen for. Events are only delivered to listeners for their
+ * exact class, so the parameter must be the concrete event class itself,
+ * not an interface, an abstract class, or a superclass of the events.
+ * <p>
+ * Nothing looks for this annotation at runtime. Instead,
+ * {@link lgbt.audrey.pipe.event.processor.SubscribeProcessor} generates a
+ * {@link Subscribers} table for every class that uses it when the plugin is
+ * compiled and lists it in the JAR's {@link SubscriberTables#INDEX index}.
+ * {@link lgbt.audrey.pipe.plugin.PluginManager} loads the listed tables along
+ * with the plugin, and hands plugins and their modules to them once they have
+ * been enabled.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.METHOD)
+public @interface Subscribe {
+    /**
+     * @return When the method runs relative to the other listeners for the
+     *         same event type
+     * @see Listener#getPriority()
+     */
+    Priority priority() default Priority.NORMAL;
+
+    /**
+     * @return Whether the method still runs once the event has been cancelled
+     * @see Listener#receivesCancelled()
+     */
+    boolean receiveCancelled() default false;
+
+    /**
+     * @return Which thread the method runs on
+     * @see Listener#getDelivery()
+     */
+    Delivery delivery() default Delivery.SYNC;
+}
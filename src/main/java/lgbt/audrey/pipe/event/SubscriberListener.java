@@ -0,0 +1,99 @@
+package lgbt.audrey.pipe.event;
+
+import lombok.NonNull;
+
+/**
+ * The base of the listeners that {@link Subscribers} tables register for
+ * {@link Subscribe} methods. A table generates a single subclass for all of
+ * its methods, which picks the method to call by {@link #index} and calls it
+ * directly on {@link #target}; there is no class per listener and no lambda
+ * or reflection in between.
+ *
+ * @param <T> The class whose methods are called
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public abstract class SubscriberListener<T> extends Listener<Object> {
+    /**
+     * The object whose method is called.
+     */
+    protected final T target;
+
+    /**
+     * Which of the table's methods is called.
+     */
+    protected final int index;
+
+    private final Priority priority;
+    private final boolean receiveCancelled;
+    private final Delivery delivery;
+    private final String method;
+
+    /**
+     * @param target           The object whose method is called. May not be
+     *                         null.
+     * @param index            Which of the table's methods is called
+     * @param type             The type of event to listen for. May not be
+     *                         null.
+     * @param priority         When the listener runs. May not be null.
+     * @param receiveCancelled Whether the listener still runs once the event
+     *                         has been cancelled
+     * @param delivery         Which thread the listener runs on. May not be
+     *                         null.
+     * @param method           The name of the method, for reports
+     */
+    @SuppressWarnings("unchecked")
+    protected SubscriberListener(@NonNull final T target, final int index, @NonNull final Class<?> type,
+                                 @NonNull final Priority priority, final boolean receiveCancelled,
+                                 @NonNull final Delivery delivery, final String method) {
+        super((Class<Object>) type);
+        this.target = target;
+        this.index = index;
+        this.priority = priority;
+        this.receiveCancelled = receiveCancelled;
+        this.delivery = delivery;
+        this.method = method;
+    }
+
+    @Override
+    public final Priority getPriority() {
+        return priority;
+    }
+
+    @Override
+    public final boolean receivesCancelled() {
+        return receiveCancelled;
+    }
+
+    @Override
+    public final Delivery getDelivery() {
+        return delivery;
+    }
+
+    /**
+     * Listeners are equal if they call the same method on the same object, so
+     * binding an object twice registers its methods once.
+     */
+    @Override
+    public final boolean equals(final Object o) {
+        if(this == o) {
+            return true;
+        }
+        if(o == null || o.getClass() != getClass()) {
+            return false;
+        }
+        final SubscriberListener<?> other = (SubscriberListener<?>) o;
+        return target == other.target && index == other.index;
+    }
+
+    @Override
+    public final int hashCode() {
+        return 31 * System.identityHashCode(target) + index;
+    }
+
+    @Override
+    public String toString() {
+        return target.getClass().getName() + '#' + method;
+    }
+}
@@ -0,0 +1,102 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.Pipe;
+import lgbt.audrey.pipe.plugin.Plugin;
+import lombok.NonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+/**
+ * Keeps the {@link Subscribers} tables of every loaded plugin, and applies
+ * them to plugins and modules.
+ * <p>
+ * The tables of a plugin JAR are listed in its {@link #INDEX}, which
+ * {@link lgbt.audrey.pipe.event.processor.SubscribeProcessor} writes when
+ * the plugin is compiled, so exactly those are loaded and nothing is
+ * probed for. Binding an object is then a map lookup per superclass.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class SubscriberTables {
+    /**
+     * The resource that lists the binary names of a JAR's tables, one per
+     * line.
+     */
+    public static final String INDEX = "META-INF/pipe/subscribers";
+
+    private static final Map<Class<?>, Subscribers<Object>> tables = new ConcurrentHashMap<>();
+
+    private SubscriberTables() {
+    }
+
+    /**
+     * Loads the tables listed in the index of a plugin JAR. JARs without an
+     * index have no tables.
+     *
+     * @param jar         The plugin JAR. May not be null.
+     * @param classLoader The class loader of the plugin. May not be null.
+     * @return The number of tables that were loaded
+     */
+    public static int load(@NonNull final JarFile jar, @NonNull final ClassLoader classLoader) {
+        final ZipEntry entry = jar.getEntry(INDEX);
+        if(entry == null) {
+            return 0;
+        }
+        int loaded = 0;
+        try(final BufferedReader reader = new BufferedReader(new InputStreamReader(jar.getInputStream(entry),
+                StandardCharsets.UTF_8))) {
+            String name;
+            while((name = reader.readLine()) != null) {
+                name = name.trim();
+                if(name.isEmpty()) {
+                    continue;
+                }
+                try {
+                    final Class<?> table = Class.forName(name, true, classLoader);
+                    register((Subscribers<?>) table.getDeclaredConstructor().newInstance());
+                    loaded++;
+                } catch(final ReflectiveOperationException | ClassCastException | LinkageError e) {
+                    Pipe.getLogger().warning("Couldn't load listener table " + name + " from " + jar.getName() + ": " + e);
+                }
+            }
+        } catch(final IOException e) {
+            Pipe.getLogger().warning("Couldn't read listener index of " + jar.getName() + ": " + e);
+        }
+        return loaded;
+    }
+
+    /**
+     * Adds a table, replacing any earlier one for the same class.
+     *
+     * @param table The table. May not be null.
+     */
+    @SuppressWarnings("unchecked")
+    public static void register(@NonNull final Subscribers<?> table) {
+        tables.put(table.getTarget(), (Subscribers<Object>) table);
+    }
+
+    /**
+     * Registers every {@link Subscribe} method that the target's class, or
+     * any of its superclasses, declares.
+     *
+     * @param bus    The bus to register with. May not be null.
+     * @param plugin The plugin the listeners belong to. May not be null.
+     * @param target The object to register. May not be null.
+     */
+    public static void bind(@NonNull final EventBus bus, @NonNull final Plugin plugin, @NonNull final Object target) {
+        for(Class<?> c = target.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+            final Subscribers<Object> table = tables.get(c);
+            if(table != null) {
+                table.subscribe(bus, plugin, target);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.plugin.Plugin;
+
+/**
+ * A table of the {@link Subscribe} methods declared by a single class.
+ * Implementations are generated at compile time by
+ * {@link lgbt.audrey.pipe.event.processor.SubscribeProcessor} and are named
+ * after the class they belong to, with <tt>$Subscribers</tt> appended. The
+ * processor also lists them in the {@link SubscriberTables#INDEX index} of
+ * the plugin JAR, which is how they are found.
+ *
+ * @param <T> The class whose methods are registered
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public interface Subscribers<T> {
+    /**
+     * @return The class whose methods this table registers
+     */
+    Class<T> getTarget();
+
+    /**
+     * Registers every {@link Subscribe} method of the target with the bus.
+     *
+     * @param bus    The bus to register with. May not be null.
+     * @param plugin The plugin the listeners belong to. May not be null.
+     * @param target The instance whose methods should be invoked. May not be
+     *               null.
+     */
+    void subscribe(EventBus bus, Plugin plugin, T target);
+}
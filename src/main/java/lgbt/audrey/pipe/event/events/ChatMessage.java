@@ -1,8 +1,10 @@
 package lgbt.audrey.pipe.event.events;
 
+import lgbt.audrey.pipe.event.Copyable;
+import lgbt.audrey.pipe.event.EventPool;
+import lgbt.audrey.pipe.event.Pooled;
 import lgbt.audrey.pipe.util.Cancellable;
 import lombok.Getter;
-import lgbt.audrey.pipe.util.Cancellable;
 
 /**
  * Event that represents a chat message being sent by the client
@@ -10,21 +12,57 @@ import lgbt.audrey.pipe.util.Cancellable;
  * @author c
  * @since 5/27/15
  */
-public class ChatMessage extends Cancellable {
+public class ChatMessage extends Cancellable implements Copyable<ChatMessage>, Pooled {
+    private static final EventPool<ChatMessage> pool = new EventPool<>(() -> new ChatMessage(null, null));
+
     /**
      * The message being sent
      */
     @Getter
-    private final String message;
+    private String message;
 
     @Getter
-    private final ChatMode mode;
+    private ChatMode mode;
 
     public ChatMessage(final String message, final ChatMode mode) {
         this.message = message;
         this.mode = mode;
     }
 
+    /**
+     * Returns this thread's reusable instance of the event, reset for the
+     * given message. Must be {@link #release()}d once the caller is done with
+     * it.
+     *
+     * @param message The message being sent
+     * @param mode    Whether the message is being sent or received
+     * @return The reset event
+     */
+    public static ChatMessage obtain(final String message, final ChatMode mode) {
+        final ChatMessage event = pool.acquire();
+        event.message = message;
+        event.mode = mode;
+        event.setCancelled(false);
+        return event;
+    }
+
+    @Override
+    public ChatMessage copy() {
+        final ChatMessage copy = new ChatMessage(message, mode);
+        copy.setCancelled(isCancelled());
+        return copy;
+    }
+
+    /**
+     * Hands an event from {@link #obtain(String, ChatMode)} back to the pool.
+     */
+    @Override
+    public void release() {
+        message = null;
+        mode = null;
+        pool.release(this);
+    }
+
     @SuppressWarnings("unused")
     public enum ChatMode {
         SEND, RECEIVE
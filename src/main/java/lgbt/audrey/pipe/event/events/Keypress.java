@@ -1,5 +1,8 @@
 package lgbt.audrey.pipe.event.events;
 
+import lgbt.audrey.pipe.event.Copyable;
+import lgbt.audrey.pipe.event.EventPool;
+import lgbt.audrey.pipe.event.Pooled;
 import lombok.Getter;
 
 /**
@@ -8,13 +11,15 @@ import lombok.Getter;
  * @author c
  * @since 5/2/15
  */
-public class Keypress {
+public class Keypress implements Copyable<Keypress>, Pooled {
+    private static final EventPool<Keypress> pool = new EventPool<>(() -> new Keypress(0));
+
     /**
      * The key that was pressed. Uses the keycodes in
      * {@link org.lwjgl.input.Keyboard}.
      */
     @Getter
-    private final int key;
+    private int key;
 
     /**
      * Creates a new keypress event
@@ -24,4 +29,31 @@ public class Keypress {
     public Keypress(final int key) {
         this.key = key;
     }
+
+    /**
+     * Returns this thread's reusable instance of the event, reset for the
+     * given key. Must be {@link #release()}d once the caller is done with
+     * it.
+     *
+     * @param key The key that was pressed
+     * @return The reset event
+     */
+    public static Keypress obtain(final int key) {
+        final Keypress event = pool.acquire();
+        event.key = key;
+        return event;
+    }
+
+    @Override
+    public Keypress copy() {
+        return new Keypress(key);
+    }
+
+    /**
+     * Hands an event from {@link #obtain(int)} back to the pool.
+     */
+    @Override
+    public void release() {
+        pool.release(this);
+    }
 }
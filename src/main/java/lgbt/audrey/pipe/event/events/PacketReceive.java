@@ -1,5 +1,8 @@
 package lgbt.audrey.pipe.event.events;
 
+import lgbt.audrey.pipe.event.Copyable;
+import lgbt.audrey.pipe.event.EventPool;
+import lgbt.audrey.pipe.event.Pooled;
 import lombok.Data;
 
 /**
@@ -10,11 +13,44 @@ import lombok.Data;
  */
 @SuppressWarnings("FieldMayBeFinal")
 @Data
-public class PacketReceive {
+public class PacketReceive implements Copyable<PacketReceive>, Pooled {
+    private static final EventPool<PacketReceive> pool = new EventPool<>(() -> new PacketReceive(null));
+
     private Object packet;
     private boolean cancelled;
 
     public PacketReceive(final Object packet) {
         this.packet = packet;
     }
+
+    /**
+     * Returns this thread's reusable instance of the event, reset for the
+     * given packet. Must be {@link #release()}d once the caller is done with
+     * it.
+     *
+     * @param packet The packet being received
+     * @return The reset event
+     */
+    public static PacketReceive obtain(final Object packet) {
+        final PacketReceive event = pool.acquire();
+        event.packet = packet;
+        event.cancelled = false;
+        return event;
+    }
+
+    @Override
+    public PacketReceive copy() {
+        final PacketReceive copy = new PacketReceive(packet);
+        copy.cancelled = cancelled;
+        return copy;
+    }
+
+    /**
+     * Hands an event from {@link #obtain(Object)} back to the pool.
+     */
+    @Override
+    public void release() {
+        packet = null;
+        pool.release(this);
+    }
 }
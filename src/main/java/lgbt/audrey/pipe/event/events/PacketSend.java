@@ -1,20 +1,59 @@
 package lgbt.audrey.pipe.event.events;
 
+import lgbt.audrey.pipe.event.Copyable;
+import lgbt.audrey.pipe.event.EventPool;
+import lgbt.audrey.pipe.event.Pooled;
 import lgbt.audrey.pipe.util.Cancellable;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 /**
+ * Pushed by the injected code before a packet is sent. Pooled; see
+ * {@link #obtain(Object)}.
+ *
  * @author audrey
  * @since 10/8/15.
  */
 @Data
 @EqualsAndHashCode(callSuper = false)
-public class PacketSend extends Cancellable {
+public class PacketSend extends Cancellable implements Copyable<PacketSend>, Pooled {
+    private static final EventPool<PacketSend> pool = new EventPool<>(() -> new PacketSend(null));
+
     @SuppressWarnings("FieldMayBeFinal")
     private Object packet;
 
     public PacketSend(final Object packet) {
         this.packet = packet;
     }
+
+    /**
+     * Returns this thread's reusable instance of the event, reset for the
+     * given packet. Must be {@link #release()}d once the caller is done with
+     * it.
+     *
+     * @param packet The packet being sent
+     * @return The reset event
+     */
+    public static PacketSend obtain(final Object packet) {
+        final PacketSend event = pool.acquire();
+        event.packet = packet;
+        event.setCancelled(false);
+        return event;
+    }
+
+    @Override
+    public PacketSend copy() {
+        final PacketSend copy = new PacketSend(packet);
+        copy.setCancelled(isCancelled());
+        return copy;
+    }
+
+    /**
+     * Hands an event from {@link #obtain(Object)} back to the pool.
+     */
+    @Override
+    public void release() {
+        packet = null;
+        pool.release(this);
+    }
 }
@@ -1,5 +1,8 @@
 package lgbt.audrey.pipe.event.events;
 
+import lgbt.audrey.pipe.event.Copyable;
+import lgbt.audrey.pipe.event.EventPool;
+import lgbt.audrey.pipe.event.Pooled;
 import lombok.Data;
 
 /**
@@ -9,10 +12,39 @@ import lombok.Data;
  * @since 5/21/15
  */
 @Data
-public class Render3D {
-    private final float partialTickTime;
+public class Render3D implements Copyable<Render3D>, Pooled {
+    private static final EventPool<Render3D> pool = new EventPool<>(() -> new Render3D(0F));
+
+    private float partialTickTime;
 
     public Render3D(final float partialTickTime) {
         this.partialTickTime = partialTickTime;
     }
+
+    /**
+     * Returns this thread's reusable instance of the event, reset for the
+     * given frame. Must be {@link #release()}d once the caller is done with
+     * it.
+     *
+     * @param partialTickTime The partial tick time of the frame
+     * @return The reset event
+     */
+    public static Render3D obtain(final float partialTickTime) {
+        final Render3D event = pool.acquire();
+        event.partialTickTime = partialTickTime;
+        return event;
+    }
+
+    @Override
+    public Render3D copy() {
+        return new Render3D(partialTickTime);
+    }
+
+    /**
+     * Hands an event from {@link #obtain(float)} back to the pool.
+     */
+    @Override
+    public void release() {
+        pool.release(this);
+    }
 }
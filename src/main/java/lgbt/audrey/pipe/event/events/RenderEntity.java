@@ -1,16 +1,52 @@
 package lgbt.audrey.pipe.event.events;
 
+import lgbt.audrey.pipe.event.Copyable;
+import lgbt.audrey.pipe.event.EventPool;
+import lgbt.audrey.pipe.event.Pooled;
 import lombok.Getter;
 
 /**
+ * Pushed by the injected code for every entity that gets rendered. Pooled;
+ * see {@link #obtain(Object)}.
+ *
  * @author audrey
  * @since 3/23/16.
  */
-public class RenderEntity {
+public class RenderEntity implements Copyable<RenderEntity>, Pooled {
+    private static final EventPool<RenderEntity> pool = new EventPool<>(() -> new RenderEntity(null));
+
     @Getter
-    private final Object entity;
+    private Object entity;
 
     public RenderEntity(final Object e) {
         entity = e;
     }
+
+    /**
+     * Returns this thread's reusable instance of the event, reset for the
+     * given entity. Must be {@link #release()}d once the caller is done with
+     * it.
+     *
+     * @param entity The entity being rendered
+     * @return The reset event
+     */
+    public static RenderEntity obtain(final Object entity) {
+        final RenderEntity event = pool.acquire();
+        event.entity = entity;
+        return event;
+    }
+
+    @Override
+    public RenderEntity copy() {
+        return new RenderEntity(entity);
+    }
+
+    /**
+     * Hands an event from {@link #obtain(Object)} back to the pool.
+     */
+    @Override
+    public void release() {
+        entity = null;
+        pool.release(this);
+    }
 }
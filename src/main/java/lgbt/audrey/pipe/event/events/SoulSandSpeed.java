@@ -1,10 +1,44 @@
 package lgbt.audrey.pipe.event.events;
 
+import lgbt.audrey.pipe.event.Copyable;
+import lgbt.audrey.pipe.event.EventPool;
+import lgbt.audrey.pipe.event.Pooled;
 import lgbt.audrey.pipe.util.Cancellable;
 
 /**
+ * Pushed by the injected code whenever an entity collides with soul sand.
+ * Cancelling it cancels the slowdown. Pooled; see {@link #obtain()}.
+ *
  * @author audrey
  * @since 12/21/15.
  */
-public class SoulSandSpeed extends Cancellable {
+public class SoulSandSpeed extends Cancellable implements Copyable<SoulSandSpeed>, Pooled {
+    private static final EventPool<SoulSandSpeed> pool = new EventPool<>(SoulSandSpeed::new);
+
+    /**
+     * Returns this thread's reusable instance of the event, reset to not be
+     * cancelled. Must be {@link #release()}d once the caller is done with it.
+     *
+     * @return The reset event
+     */
+    public static SoulSandSpeed obtain() {
+        final SoulSandSpeed event = pool.acquire();
+        event.setCancelled(false);
+        return event;
+    }
+
+    @Override
+    public SoulSandSpeed copy() {
+        final SoulSandSpeed copy = new SoulSandSpeed();
+        copy.setCancelled(isCancelled());
+        return copy;
+    }
+
+    /**
+     * Hands an event from {@link #obtain()} back to the pool.
+     */
+    @Override
+    public void release() {
+        pool.release(this);
+    }
 }
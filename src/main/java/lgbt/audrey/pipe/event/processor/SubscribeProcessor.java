@@ -0,0 +1,233 @@
+package lgbt.audrey.pipe.event.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates a <tt>lgbt.audrey.pipe.event.Subscribers</tt> table for every
+ * class that has methods annotated with <tt>@Subscribe</tt>. The table is a
+ * plain class in the same package with a single nested listener class, which
+ * calls the methods directly by index, along with the priority, cancellation
+ * and delivery options given in the annotation, so loading a plugin doesn't
+ * need to reflect over its methods, inspect any generic types, or spin a
+ * class per method.
+ * <p>
+ * Every table written is listed in the
+ * <tt>lgbt.audrey.pipe.event.SubscriberTables#INDEX</tt> resource, which is
+ * how Pipe finds the tables in a plugin JAR. The index covers the classes
+ * compiled in one run, so plugins should be built in full rather than
+ * incrementally.
+ * <p>
+ * This processor is registered as a service in the Pipe JAR, so plugins
+ * compiled against Pipe pick it up automatically. It only references the
+ * annotation by name, which lets it be compiled before the rest of Pipe.
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+@SupportedAnnotationTypes(SubscribeProcessor.SUBSCRIBE)
+public class SubscribeProcessor extends AbstractProcessor {
+    static final String SUBSCRIBE = "lgbt.audrey.pipe.event.Subscribe";
+    private static final String SUFFIX = "$Subscribers";
+    private static final String INDEX = "META-INF/pipe/subscribers";
+
+    private final Set<String> tables = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        final Map<TypeElement, List<ExecutableElement>> methods = new LinkedHashMap<>();
+        for(final TypeElement annotation : annotations) {
+            for(final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                final ExecutableElement method = (ExecutableElement) element;
+                if(isValid(method)) {
+                    methods.computeIfAbsent((TypeElement) method.getEnclosingElement(), t -> new ArrayList<>()).add(method);
+                }
+            }
+        }
+        methods.forEach(this::writeTable);
+        if(roundEnv.processingOver() && !tables.isEmpty()) {
+            writeIndex();
+        }
+        return true;
+    }
+
+    private boolean isValid(final ExecutableElement method) {
+        final Messager messager = processingEnv.getMessager();
+        final Element owner = method.getEnclosingElement();
+        if(owner.getKind() != ElementKind.CLASS) {
+            messager.printMessage(Kind.ERROR, "@Subscribe methods must be declared in a class", method);
+            return false;
+        }
+        final TypeElement type = (TypeElement) owner;
+        if(type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS
+                || type.getModifiers().contains(Modifier.PRIVATE)) {
+            messager.printMessage(Kind.ERROR, "@Subscribe methods must be declared in a class visible to its package", method);
+            return false;
+        }
+        if(method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)) {
+            messager.printMessage(Kind.ERROR, "@Subscribe methods may not be private or static", method);
+            return false;
+        }
+        if(method.getReturnType().getKind() != TypeKind.VOID) {
+            messager.printMessage(Kind.ERROR, "@Subscribe methods must return void", method);
+            return false;
+        }
+        if(method.getParameters().size() != 1
+                || method.getParameters().get(0).asType().getKind() != TypeKind.DECLARED) {
+            messager.printMessage(Kind.ERROR, "@Subscribe methods must take exactly one event parameter", method);
+            return false;
+        }
+        // The bus dispatches on the exact class of the event, so these would never be called
+        final Element event = processingEnv.getTypeUtils().asElement(method.getParameters().get(0).asType());
+        if(event.getKind().isInterface() || event.getModifiers().contains(Modifier.ABSTRACT)) {
+            messager.printMessage(Kind.ERROR, "@Subscribe methods must take the exact class of the event, "
+                    + "not an interface or abstract class", method);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the priority, cancellation and delivery arguments to register
+     * the method with, filling in the defaults the annotation leaves out.
+     */
+    private String options(final ExecutableElement method) {
+        String priority = "NORMAL";
+        boolean receiveCancelled = false;
+        String delivery = "SYNC";
+        for(final AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            if(!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(SUBSCRIBE)) {
+                continue;
+            }
+            for(final Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                final Object value = entry.getValue().getValue();
+                if(entry.getKey().getSimpleName().contentEquals("priority")) {
+                    priority = ((VariableElement) value).getSimpleName().toString();
+                } else if(entry.getKey().getSimpleName().contentEquals("receiveCancelled")) {
+                    receiveCancelled = (Boolean) value;
+                } else if(entry.getKey().getSimpleName().contentEquals("delivery")) {
+                    delivery = ((VariableElement) value).getSimpleName().toString();
+                }
+            }
+        }
+        return "lgbt.audrey.pipe.event.Priority." + priority + ", " + receiveCancelled
+                + ", lgbt.audrey.pipe.event.Delivery." + delivery;
+    }
+
+    private void writeTable(final TypeElement type, final List<ExecutableElement> methods) {
+        final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        final String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        final String tableName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + SUFFIX;
+        final String targetName = processingEnv.getTypeUtils().erasure(type.asType()).toString();
+
+        final String qualifiedName = packageName.isEmpty() ? tableName : packageName + '.' + tableName;
+
+        try {
+            final JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+            try(final Writer writer = file.openWriter(); final PrintWriter out = new PrintWriter(writer)) {
+                if(!packageName.isEmpty()) {
+                    out.println("package " + packageName + ';');
+                    out.println();
+                }
+                out.println("/**");
+                out.println(" * Listener table for {@link " + targetName + "}. Generated by");
+                out.println(" * " + getClass().getName() + "; do not edit.");
+                out.println(" */");
+                out.println("@SuppressWarnings(\"all\")");
+                out.println("public final class " + tableName
+                        + " implements lgbt.audrey.pipe.event.Subscribers<" + targetName + "> {");
+                out.println("    @Override");
+                out.println("    public Class<" + targetName + "> getTarget() {");
+                out.println("        return " + targetName + ".class;");
+                out.println("    }");
+                out.println();
+                out.println("    @Override");
+                out.println("    public void subscribe(final lgbt.audrey.pipe.event.EventBus bus, "
+                        + "final lgbt.audrey.pipe.plugin.Plugin plugin, final " + targetName + " target) {");
+                for(int i = 0; i < methods.size(); i++) {
+                    final ExecutableElement method = methods.get(i);
+                    out.println("        bus.register(plugin, new Dispatch(target, " + i + ", " + event(method) + ".class, "
+                            + options(method) + ", \"" + method.getSimpleName() + "\"));");
+                }
+                out.println("    }");
+                out.println();
+                out.println("    private static final class Dispatch extends lgbt.audrey.pipe.event.SubscriberListener<"
+                        + targetName + "> {");
+                out.println("        Dispatch(final " + targetName + " target, final int index, final Class<?> type, "
+                        + "final lgbt.audrey.pipe.event.Priority priority, final boolean receiveCancelled, "
+                        + "final lgbt.audrey.pipe.event.Delivery delivery, final String method) {");
+                out.println("            super(target, index, type, priority, receiveCancelled, delivery, method);");
+                out.println("        }");
+                out.println();
+                out.println("        @Override");
+                out.println("        public void event(final Object event) {");
+                out.println("            switch(index) {");
+                for(int i = 0; i < methods.size(); i++) {
+                    final ExecutableElement method = methods.get(i);
+                    out.println("                case " + i + ':');
+                    out.println("                    target." + method.getSimpleName() + "((" + event(method) + ") event);");
+                    out.println("                    return;");
+                }
+                out.println("                default:");
+                out.println("                    throw new IllegalStateException(\"No listener method \" + index);");
+                out.println("            }");
+                out.println("        }");
+                out.println("    }");
+                out.println("}");
+            }
+            tables.add(qualifiedName);
+        } catch(final IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR, "Couldn't write listener table: " + e.getMessage(), type);
+        }
+    }
+
+    private TypeMirror event(final ExecutableElement method) {
+        return processingEnv.getTypeUtils().erasure(method.getParameters().get(0).asType());
+    }
+
+    private void writeIndex() {
+        try {
+            final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+            try(final Writer writer = file.openWriter(); final PrintWriter out = new PrintWriter(writer)) {
+                tables.forEach(out::println);
+            }
+        } catch(final IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR, "Couldn't write listener index: " + e.getMessage());
+        }
+    }
+}
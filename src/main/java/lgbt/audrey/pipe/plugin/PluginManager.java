@@ -2,8 +2,11 @@ package lgbt.audrey.pipe.plugin;
 
 import lgbt.audrey.pipe.Pipe;
 import lgbt.audrey.pipe.bytecode.ClassEnumerator;
+import lgbt.audrey.pipe.event.SubscriberTables;
 import lgbt.audrey.pipe.plugin.module.Module;
 import lgbt.audrey.pipe.plugin.module.ToggleModule;
+import lgbt.audrey.pipe.util.StartupTrace;
+import lgbt.audrey.pipe.util.StartupTrace.Span;
 import lombok.Getter;
 import lombok.NonNull;
 
@@ -45,11 +48,14 @@ public class PluginManager {
         for(final File file : files) {
             if(file.getName().toLowerCase().endsWith(".jar")) {
                 final List<Class<?>> classes;
-                try {
-                    classes = ClassEnumerator.getClassesFromJar(file, URLClassLoader.newInstance(new URL[] {
+                final ClassLoader classLoader;
+                try(final Span span = StartupTrace.begin("plugin", "scan " + file.getName())) {
+                    classLoader = URLClassLoader.newInstance(new URL[] {
                             file.toURI().toURL()
                             //new URL("jar:file:" + file.getAbsoluteFile().getAbsolutePath() + "!/").toURI().toURL()
-                    }));
+                    });
+                    classes = ClassEnumerator.getClassesFromJar(file, classLoader);
+                    span.arg("classes", classes.size());
                 } catch(final Exception e) {
                     Pipe.getLogger().warning("Error loading JAR (" + file.getName() + "):");
                     e.printStackTrace();
@@ -63,6 +69,9 @@ public class PluginManager {
                     e.printStackTrace();
                     continue;
                 }
+                try(final Span span = StartupTrace.begin("plugin", "listener tables " + file.getName())) {
+                    span.arg("tables", SubscriberTables.load(jarFile, classLoader));
+                }
                 final ZipEntry entry = jarFile.getEntry("plugin.json");
                 if(entry == null) {
                     Pipe.getLogger().warning("No plugin.json in " + file.getName() + ", skipping.");
@@ -101,7 +110,7 @@ public class PluginManager {
                         }
                         final Plugin plugin = (Plugin) clazz.getDeclaredConstructor().newInstance();
                         plugin.setManifest(pluginManifest);
-                        try {
+                        try(final Span span = StartupTrace.begin("plugin", "onLoad " + pluginManifest.getName())) {
                             plugin.onLoad();
                         } catch(final Exception e) {
                             Pipe.getLogger().warning("Error loading plugin: " + clazz.getName());
@@ -120,8 +129,16 @@ public class PluginManager {
         plugins.forEach(p -> {
             try {
                 p.loadManifestData();
-                p.onEnable();
-                p.getProvidedModules().forEach(Module::init);
+                try(final Span span = StartupTrace.begin("plugin", "onEnable " + p.getName())) {
+                    p.onEnable();
+                    SubscriberTables.bind(pipe.getEventBus(), p, p);
+                }
+                p.getProvidedModules().forEach(m -> {
+                    try(final Span span = StartupTrace.begin("module", "init " + p.getName() + '.' + m.getName())) {
+                        m.init();
+                        SubscriberTables.bind(pipe.getEventBus(), p, m);
+                    }
+                });
                 p.setEnabled(true);
                 Pipe.getLogger().info("Enabled plugin: " + p.getName());
             } catch(final Exception e) {
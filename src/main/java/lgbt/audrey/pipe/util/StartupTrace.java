@@ -0,0 +1,198 @@
+package lgbt.audrey.pipe.util;
+
+import com.google.gson.Gson;
+import lgbt.audrey.pipe.Pipe;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records how long each stage of starting the client takes, and writes the
+ * stages out as a
+ * <a href="https://docs.google.com/document/d/1CvAClvFfyA5R-PhYUmn5OOQtYMH4h6I0nSsKchNAySU">Chrome trace-event</a>
+ * file, which can be opened in <tt>chrome://tracing</tt> or Perfetto to see
+ * startup as a flame chart, one row per thread.
+ * <p>
+ * Tracing is enabled with the <tt>pipe.trace.startup</tt> system property.
+ * While it is off, {@link #begin(String, String)} returns a shared span
+ * that does nothing, so stages cost a single static field read.
+ * <p>
+ * Stages are recorded with try-with-resources:
+ * <pre>
+ * try(final StartupTrace.Span span = StartupTrace.begin("plugin", "onLoad " + name)) {
+ *     plugin.onLoad();
+ * }
+ * </pre>
+ *
+ * @author audrey
+ * @since 10/18/26.
+ */
+public final class StartupTrace {
+    private static final boolean ENABLED = Boolean.getBoolean("pipe.trace.startup");
+
+    /**
+     * What trace timestamps are relative to.
+     */
+    private static final long ORIGIN = System.nanoTime();
+
+    private static final Queue<Event> events = new ConcurrentLinkedQueue<>();
+    private static final Map<Long, String> threads = new ConcurrentHashMap<>();
+
+    private StartupTrace() {
+    }
+
+    /**
+     * @return Whether startup is being traced
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Starts timing a stage. The stage ends when the returned span is closed.
+     *
+     * @param category The kind of stage, e.g. <tt>bytecode</tt> or
+     *                 <tt>plugin</tt>
+     * @param name     The name of the stage
+     * @return The span to close when the stage is done
+     */
+    public static Span begin(final String category, final String name) {
+        return ENABLED ? new Span(category, name) : Span.NONE;
+    }
+
+    /**
+     * Writes every stage recorded so far to <tt>startup-trace.json</tt> in the
+     * given directory. Does nothing if tracing is off.
+     *
+     * @param directory The directory to write the trace to
+     */
+    public static void write(final File directory) {
+        if(!ENABLED) {
+            return;
+        }
+        final List<Event> trace = new ArrayList<>(events);
+        final long pid = pid();
+        threads.forEach((tid, name) -> {
+            final Event event = new Event("thread_name", "__metadata", "M", 0, 0, tid);
+            event.args.put("name", name);
+            trace.add(event);
+        });
+        trace.forEach(e -> e.pid = pid);
+        final Map<String, Object> root = new LinkedHashMap<>();
+        root.put("traceEvents", trace);
+        root.put("displayTimeUnit", "ms");
+        final File file = new File(directory, "startup-trace.json");
+        try(final Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            new Gson().toJson(root, writer);
+            Pipe.getLogger().info("Wrote startup trace of " + events.size() + " stages to " + file.getAbsolutePath());
+        } catch(final IOException e) {
+            Pipe.getLogger().warning("Couldn't write startup trace: " + e);
+        }
+    }
+
+    private static long pid() {
+        final String name = ManagementFactory.getRuntimeMXBean().getName();
+        try {
+            return Long.parseLong(name.substring(0, name.indexOf('@')));
+        } catch(final NumberFormatException | IndexOutOfBoundsException e) {
+            return 0;
+        }
+    }
+
+    private static double micros(final long nanos) {
+        return (nanos - ORIGIN) / 1000D;
+    }
+
+    /**
+     * A stage being timed.
+     */
+    public static final class Span implements AutoCloseable {
+        private static final Span NONE = new Span();
+
+        private final String category;
+        private final String name;
+        private final long start;
+        private Map<String, Object> args;
+
+        private Span() {
+            category = null;
+            name = null;
+            start = 0;
+        }
+
+        private Span(final String category, final String name) {
+            this.category = category;
+            this.name = name;
+            start = System.nanoTime();
+        }
+
+        /**
+         * Attaches a value to the stage, e.g. the size of a class. Shown
+         * when the stage is selected in the trace viewer.
+         *
+         * @param key   The name of the value
+         * @param value The value
+         * @return This span
+         */
+        public Span arg(final String key, final Object value) {
+            if(this != NONE) {
+                if(args == null) {
+                    args = new LinkedHashMap<>();
+                }
+                args.put(key, value);
+            }
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if(this == NONE) {
+                return;
+            }
+            final long end = System.nanoTime();
+            final Thread thread = Thread.currentThread();
+            threads.putIfAbsent(thread.getId(), thread.getName());
+            final Event event = new Event(name, category, "X", micros(start), (end - start) / 1000D, thread.getId());
+            if(args != null) {
+                event.args.putAll(args);
+            }
+            events.add(event);
+        }
+    }
+
+    /**
+     * A single trace event, in the shape of the trace-event format.
+     */
+    @SuppressWarnings({"unused", "FieldCanBeLocal"})
+    private static final class Event {
+        private final String name;
+        private final String cat;
+        private final String ph;
+        private final double ts;
+        private final double dur;
+        private long pid;
+        private final long tid;
+        private final Map<String, Object> args = new LinkedHashMap<>();
+
+        private Event(final String name, final String cat, final String ph, final double ts, final double dur,
+                      final long tid) {
+            this.name = name;
+            this.cat = cat;
+            this.ph = ph;
+            this.ts = ts;
+            this.dur = dur;
+            this.tid = tid;
+        }
+    }
+}
@@ -28,7 +28,14 @@ public final class ChatHelper {
      * @param message The message to tinker with.
      */
     public static void handle(final String message) {
-        if(!Pipe.getInstance().getEventBus().push(new ChatMessage(message, ChatMode.SEND)).isCancelled()) {
+        final ChatMessage event = ChatMessage.obtain(message, ChatMode.SEND);
+        final boolean cancelled;
+        try {
+            cancelled = Pipe.getInstance().getEventBus().push(event).isCancelled();
+        } finally {
+            event.release();
+        }
+        if(!cancelled) {
             Helper._sendChatMessage(message);
             // TODO: Add to sent chat messages
         }
@@ -0,0 +1,128 @@
+package lgbt.audrey.pipe.bytecode.map;
+
+import lgbt.audrey.pipe.bytecode.map.MappedClass.MethodDef;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author audrey
+ * @since 10/18/26.
+ */
+public class BinaryMappingsTest {
+    private static final String JSON = "["
+            + "{\"deobfuscatedName\": \"Minecraft\", \"obfuscatedName\": \"bcf\", \"description\": \"Lbcf;\","
+            + " \"fields\": {\"thePlayer\": \"h\", \"theWorld\": \"f\"},"
+            + " \"methods\": ["
+            + "  {\"name\": \"a\", \"deobfName\": \"runTick\", \"desc\": \"()V\"},"
+            + "  {\"name\": \"a\", \"deobfName\": \"displayGuiScreen\", \"desc\": \"(Lbdw;)V\"},"
+            + "  {\"name\": \"b\", \"deobfName\": \"displayGuiScreen\", \"desc\": \"(Lbdw;Z)V\"}"
+            + " ]},"
+            + "{\"deobfuscatedName\": \"PacketClientChatMessage\", \"obfuscatedName\": \"im\","
+            + " \"fields\": {\"chatMessage\": \"a\"},"
+            + " \"methods\": [{\"name\": \"b\", \"deobfName\": \"getMessage\"}]},"
+            + "{\"deobfuscatedName\": \"Empty\", \"obfuscatedName\": \"zz\", \"fields\": null, \"methods\": null}"
+            + "]";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTrips() throws IOException {
+        final List<MappedClass> expected = MappingReader.read(new StringReader(JSON));
+        final File file = compile(expected);
+        assertTrue(BinaryMappings.isBinary(file));
+
+        final Map<String, MappedClass> actual = byName(BinaryMappings.map(file));
+        assertEquals(expected.size(), actual.size());
+        for(final MappedClass want : expected) {
+            final MappedClass got = actual.get(want.getDeobfuscatedName());
+            assertEquals(want.getObfuscatedName(), got.getObfuscatedName());
+            assertEquals(want.getDescription(), got.getDescription());
+            assertEquals(want.getFields(), got.getFields());
+            assertEquals(want.getMethods(), got.getMethods());
+        }
+    }
+
+    @Test
+    public void keepsOverloadsAndNulls() throws IOException {
+        final Map<String, MappedClass> classes = byName(BinaryMappings.map(compile(MappingReader.read(new StringReader(JSON)))));
+
+        final MappedClass minecraft = classes.get("Minecraft");
+        assertEquals("Lbcf;", minecraft.getDescription());
+        assertEquals("h", minecraft.getField("thePlayer"));
+        assertEquals("theWorld", minecraft.getFieldByObfuscatedName("f"));
+        assertEquals(new MethodDef("a", "displayGuiScreen", "(Lbdw;)V"),
+                minecraft.getMethod("displayGuiScreen", "(Lbdw;)V").get());
+        assertEquals(new MethodDef("b", "displayGuiScreen", "(Lbdw;Z)V"),
+                minecraft.getMethod("displayGuiScreen", "(Lbdw;Z)V").get());
+        assertEquals("runTick", minecraft.getMethodByObfuscatedName("a", "()V").get().getDeobfName());
+
+        final MappedClass packet = classes.get("PacketClientChatMessage");
+        assertNull(packet.getDescription());
+        assertNull(packet.getMethod("getMessage").get().getDesc());
+
+        final MappedClass empty = classes.get("Empty");
+        assertEquals("zz", empty.getObfuscatedName());
+        assertTrue(empty.getFields().isEmpty());
+        assertTrue(empty.getMethods().isEmpty());
+    }
+
+    @Test
+    public void rejectsWrongMagic() throws IOException {
+        final File file = compile(MappingReader.read(new StringReader(JSON)));
+        writeInt(file, 0, 0xCAFEBABE);
+        assertFalse(BinaryMappings.isBinary(file));
+        assertRejected(file);
+    }
+
+    @Test
+    public void rejectsWrongVersion() throws IOException {
+        final File file = compile(MappingReader.read(new StringReader(JSON)));
+        writeInt(file, 4, BinaryMappings.VERSION + 1);
+        assertTrue(BinaryMappings.isBinary(file));
+        assertRejected(file);
+    }
+
+    private File compile(final List<MappedClass> classes) throws IOException {
+        final File file = new File(folder.getRoot(), "mappings.bin");
+        MappingCompiler.compile(classes, file);
+        return file;
+    }
+
+    private static Map<String, MappedClass> byName(final List<MappedClass> classes) {
+        final Map<String, MappedClass> map = new HashMap<>();
+        classes.forEach(c -> map.put(c.getDeobfuscatedName(), c));
+        return map;
+    }
+
+    private static void writeInt(final File file, final long position, final int value) throws IOException {
+        try(final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(position);
+            raf.writeInt(value);
+        }
+    }
+
+    private static void assertRejected(final File file) {
+        try {
+            BinaryMappings.map(file);
+            fail("Loaded " + file + " despite its header");
+        } catch(final IOException expected) {
+            // Expected
+        }
+    }
+}
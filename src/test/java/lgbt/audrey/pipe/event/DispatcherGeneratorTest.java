@@ -0,0 +1,153 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.plugin.BasicPlugin;
+import lgbt.audrey.pipe.plugin.Plugin;
+import lgbt.audrey.pipe.util.Cancellable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author audrey
+ * @since 10/18/26.
+ */
+public class DispatcherGeneratorTest {
+    private final PipeEventBus bus = new PipeEventBus();
+    private final Plugin plugin = new BasicPlugin() {
+    };
+    private final List<String> calls = new ArrayList<>();
+
+    @Test
+    public void runsListenersInPriorityOrder() {
+        bus.register(plugin, Listener.of(Event.class, Priority.LAST, false, e -> calls.add("last")));
+        bus.register(plugin, Listener.of(Event.class, Priority.NORMAL, false, e -> calls.add("normal")));
+        bus.register(plugin, new Recording("first", Priority.FIRST, false));
+        bus.register(plugin, Listener.of(Event.class, Priority.EARLY, false, e -> calls.add("early")));
+        bus.register(plugin, new Recording("late", Priority.LATE, false));
+
+        bus.push(new Event());
+        assertEquals(Arrays.asList("first", "early", "normal", "late", "last"), calls);
+    }
+
+    @Test
+    public void keepsTheGivenOrder() {
+        final Dispatcher dispatcher = generate(new Recording("a", Priority.LAST, false),
+                Listener.of(Event.class, e -> calls.add("b")), new Recording("c", Priority.FIRST, false));
+        assertNotEquals(LazyDispatcher.class, dispatcher.getClass());
+
+        dispatcher.dispatch(new Event());
+        assertEquals(Arrays.asList("a", "b", "c"), calls);
+    }
+
+    @Test
+    public void stopsOnceCancelled() {
+        final Dispatcher dispatcher = generate(new Recording("a", Priority.NORMAL, false),
+                Listener.of(Event.class, e -> {
+                    calls.add("cancel");
+                    e.setCancelled(true);
+                }),
+                new Recording("b", Priority.NORMAL, false),
+                Listener.of(Event.class, e -> calls.add("c")));
+
+        dispatcher.dispatch(new Event());
+        assertEquals(Arrays.asList("a", "cancel"), calls);
+    }
+
+    @Test
+    public void runsListenersThatReceiveCancelledAfterCancelling() {
+        final Dispatcher dispatcher = generate(new Recording("cancel", Priority.NORMAL, false) {
+                    @Override
+                    public void event(final Event event) {
+                        super.event(event);
+                        event.setCancelled(true);
+                    }
+                },
+                new Recording("skipped", Priority.NORMAL, false),
+                new Recording("receives", Priority.NORMAL, true),
+                Listener.of(Event.class, Priority.NORMAL, true, e -> calls.add("consumer receives")));
+
+        final Event event = new Event();
+        dispatcher.dispatch(event);
+        assertEquals(Arrays.asList("cancel", "receives", "consumer receives"), calls);
+        assertTrue(event.isCancelled());
+    }
+
+    @Test
+    public void isolatesThrowingListeners() {
+        final Dispatcher dispatcher = generate(new Recording("a", Priority.NORMAL, false) {
+                    @Override
+                    public void event(final Event event) {
+                        super.event(event);
+                        throw new IllegalStateException("listener a");
+                    }
+                },
+                Listener.of(Event.class, e -> {
+                    calls.add("b");
+                    throw new RuntimeException("listener b");
+                }),
+                new Recording("c", Priority.NORMAL, false));
+
+        dispatcher.dispatch(new Event());
+        assertEquals(Arrays.asList("a", "b", "c"), calls);
+        assertEquals(1, dispatcher.getRegistrations()[0].getFailures());
+        assertEquals(1, dispatcher.getRegistrations()[1].getFailures());
+        assertEquals(0, dispatcher.getRegistrations()[2].getFailures());
+    }
+
+    @Test
+    public void throwingListenersDoNotEscapePush() {
+        bus.register(plugin, Listener.of(Event.class, Priority.FIRST, false, e -> {
+            throw new RuntimeException("first");
+        }));
+        bus.register(plugin, Listener.of(Event.class, Priority.LAST, false, e -> calls.add("last")));
+
+        bus.push(new Event());
+        bus.push(new Event());
+        assertEquals(Arrays.asList("last", "last"), calls);
+    }
+
+    private Dispatcher generate(final Listener<?>... listeners) {
+        final Registration[] registrations = new Registration[listeners.length];
+        for(int i = 0; i < listeners.length; i++) {
+            registrations[i] = new Registration(bus, plugin, listeners[i]);
+        }
+        return DispatcherGenerator.generate(Event.class, registrations);
+    }
+
+    public static final class Event extends Cancellable {
+    }
+
+    private class Recording extends Listener<Event> {
+        private final String name;
+        private final Priority priority;
+        private final boolean receiveCancelled;
+
+        Recording(final String name, final Priority priority, final boolean receiveCancelled) {
+            super(Event.class);
+            this.name = name;
+            this.priority = priority;
+            this.receiveCancelled = receiveCancelled;
+        }
+
+        @Override
+        public void event(final Event event) {
+            calls.add(name);
+        }
+
+        @Override
+        public Priority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public boolean receivesCancelled() {
+            return receiveCancelled;
+        }
+    }
+}
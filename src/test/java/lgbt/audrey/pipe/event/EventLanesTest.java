@@ -0,0 +1,128 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.event.EventLanes.Backpressure;
+import lgbt.audrey.pipe.plugin.BasicPlugin;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author audrey
+ * @since 10/18/26.
+ */
+public class EventLanesTest {
+    private static final int PRODUCERS = 4;
+    private static final int EVENTS = 20_000;
+
+    @Test
+    public void dropsOrDeliversEveryEventOnce() throws InterruptedException {
+        run(Backpressure.DROP);
+    }
+
+    @Test
+    public void blocksUntilEveryEventIsDelivered() throws InterruptedException {
+        assertEquals(0, run(Backpressure.BLOCK));
+    }
+
+    @Test
+    public void coalescesOrDeliversEveryEventOnce() throws InterruptedException {
+        run(Backpressure.COALESCE);
+    }
+
+    /**
+     * Pushes events from several threads into a single small lane, and
+     * checks that every event is delivered exactly once or counted as
+     * dropped, and that each producer's events arrive in push order.
+     *
+     * @return The number of dropped events
+     */
+    private static long run(final Backpressure backpressure) throws InterruptedException {
+        final EventLanes lanes = lanes(backpressure);
+        final List<List<Integer>> received = new ArrayList<>();
+        for(int i = 0; i < PRODUCERS; i++) {
+            received.add(new ArrayList<>());
+        }
+        final AtomicLong delivered = new AtomicLong();
+        final Registration[] listeners = {
+                new Registration(new PipeEventBus(), new BasicPlugin() {
+                }, Listener.of(Event.class, e -> {
+                    // Only the worker writes these, and the test reads them after seeing the count
+                    received.get(e.producer).add(e.sequence);
+                    if((e.sequence & 63) == 0) {
+                        // Slow down now and then so the lane fills up
+                        Thread.yield();
+                    }
+                    delivered.incrementAndGet();
+                }))
+        };
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] producers = new Thread[PRODUCERS];
+        for(int p = 0; p < PRODUCERS; p++) {
+            final int producer = p;
+            producers[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch(final InterruptedException e) {
+                    return;
+                }
+                for(int i = 0; i < EVENTS; i++) {
+                    lanes.publish(lanes.laneFor(Event.class), new Event(producer, i), listeners);
+                }
+            });
+            producers[p].start();
+        }
+        start.countDown();
+        for(final Thread producer : producers) {
+            producer.join();
+        }
+
+        final long total = (long) PRODUCERS * EVENTS;
+        final long deadline = System.nanoTime() + 10_000_000_000L;
+        while(delivered.get() + lanes.getDropped(0) < total && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(total, delivered.get() + lanes.getDropped(0));
+        assertEquals(0, lanes.getDepth(0));
+
+        long count = 0;
+        for(final List<Integer> sequences : received) {
+            for(int i = 1; i < sequences.size(); i++) {
+                assertTrue("Out of order or duplicated: " + sequences.get(i - 1) + " then " + sequences.get(i),
+                        sequences.get(i - 1) < sequences.get(i));
+            }
+            count += sequences.size();
+        }
+        assertEquals(delivered.get(), count);
+        return lanes.getDropped(0);
+    }
+
+    private static EventLanes lanes(final Backpressure backpressure) {
+        System.setProperty("pipe.events.async.lanes", "1");
+        System.setProperty("pipe.events.async.capacity", "8");
+        System.setProperty("pipe.events.async.backpressure", backpressure.name());
+        try {
+            return EventLanes.fromProperties();
+        } finally {
+            System.clearProperty("pipe.events.async.lanes");
+            System.clearProperty("pipe.events.async.capacity");
+            System.clearProperty("pipe.events.async.backpressure");
+        }
+    }
+
+    private static final class Event {
+        private final int producer;
+        private final int sequence;
+
+        private Event(final int producer, final int sequence) {
+            this.producer = producer;
+            this.sequence = sequence;
+        }
+    }
+}
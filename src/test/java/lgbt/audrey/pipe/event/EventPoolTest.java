@@ -0,0 +1,49 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.event.events.PacketSend;
+import lgbt.audrey.pipe.plugin.BasicPlugin;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * @author audrey
+ * @since 10/18/26.
+ */
+public class EventPoolTest {
+    @Test
+    public void reusesReleasedEvents() {
+        final PacketSend first = PacketSend.obtain("first");
+        final PacketSend nested = PacketSend.obtain("nested");
+        assertNotSame(first, nested);
+        nested.release();
+        first.release();
+        final PacketSend second = PacketSend.obtain("second");
+        second.release();
+        assertSame(first, second);
+    }
+
+    @Test
+    public void releasesWhenAnErrorEscapesPush() {
+        final PipeEventBus bus = new PipeEventBus();
+        bus.register(new BasicPlugin() {
+        }, Listener.of(PacketSend.class, e -> {
+            if("overflow".equals(e.getPacket())) {
+                throw new StackOverflowError("listener");
+            }
+        }));
+
+        final PacketSend first = PacketSend.obtain("overflow");
+        try {
+            bus.push(first);
+            fail("The error didn't escape push");
+        } catch(final StackOverflowError expected) {
+            // Expected: virtual machine errors are never swallowed
+        }
+        final PacketSend second = PacketSend.obtain("next");
+        second.release();
+        assertSame(first, second);
+    }
+}
@@ -0,0 +1,111 @@
+package lgbt.audrey.pipe.event;
+
+import lgbt.audrey.pipe.plugin.BasicPlugin;
+import lgbt.audrey.pipe.plugin.Plugin;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author audrey
+ * @since 10/18/26.
+ */
+public class ParallelDispatcherTest {
+    private static final int LISTENERS = 3;
+
+    private final PipeEventBus bus = new PipeEventBus();
+    private final Plugin plugin = new BasicPlugin() {
+    };
+
+    @Test
+    public void returnsOnlyOnceEveryListenerHasRun() {
+        final AtomicInteger runs = new AtomicInteger();
+        for(int i = 0; i < LISTENERS; i++) {
+            bus.register(plugin, Listener.of(Event.class, Priority.NORMAL, false, Delivery.PARALLEL, e -> {
+                sleep();
+                runs.incrementAndGet();
+            }));
+        }
+        bus.register(plugin, Listener.of(Event.class, e -> runs.incrementAndGet()));
+
+        // Pushing over and over reuses the same tasks
+        for(int push = 1; push <= 50; push++) {
+            bus.push(new Event(0));
+            assertEquals(push * (LISTENERS + 1), runs.get());
+        }
+    }
+
+    @Test
+    public void handlesPushesFromParallelListeners() {
+        final AtomicInteger runs = new AtomicInteger();
+        for(int i = 0; i < LISTENERS; i++) {
+            bus.register(plugin, Listener.of(Event.class, Priority.NORMAL, false, Delivery.PARALLEL, e -> {
+                // One of these runs on the pushing thread, so it pushes while its own tasks are in flight
+                if(e.depth > 0) {
+                    bus.push(new Event(e.depth - 1));
+                }
+                sleep();
+                runs.incrementAndGet();
+            }));
+        }
+
+        // Every push runs every listener, and every listener pushes again until the depth runs out
+        for(int push = 0; push < 5; push++) {
+            runs.set(0);
+            bus.push(new Event(3));
+            assertEquals(LISTENERS * (1 + LISTENERS + LISTENERS * LISTENERS + LISTENERS * LISTENERS * LISTENERS),
+                    runs.get());
+        }
+    }
+
+    @Test
+    public void recoversAfterAnErrorEscapesPush() {
+        final AtomicInteger runs = new AtomicInteger();
+        final AtomicBoolean thrown = new AtomicBoolean();
+        // The first listener is forked, so its error comes out of a join
+        bus.register(plugin, Listener.of(Event.class, Priority.FIRST, false, Delivery.PARALLEL, e -> {
+            if(thrown.compareAndSet(false, true)) {
+                throw new StackOverflowError("listener");
+            }
+            runs.incrementAndGet();
+        }));
+        for(int i = 1; i < LISTENERS; i++) {
+            bus.register(plugin, Listener.of(Event.class, Priority.NORMAL, false, Delivery.PARALLEL, e -> {
+                sleep();
+                runs.incrementAndGet();
+            }));
+        }
+
+        try {
+            bus.push(new Event(0));
+            fail("The error didn't escape push");
+        } catch(final StackOverflowError expected) {
+            // Expected: virtual machine errors are never swallowed
+        }
+        for(int push = 1; push <= 10; push++) {
+            runs.set(0);
+            bus.push(new Event(0));
+            assertEquals(LISTENERS, runs.get());
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(1);
+        } catch(final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Event {
+        private final int depth;
+
+        private Event(final int depth) {
+            this.depth = depth;
+        }
+    }
+}